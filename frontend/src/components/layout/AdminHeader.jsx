@@ -1,6 +1,6 @@
 import React, { useEffect, useRef, useState } from 'react';
 import { FiLogOut } from 'react-icons/fi';
-import { getUserProfile } from '../../services/authService.js';
+import { getUserProfile, logout } from '../../services/authService.js';
 
 const Header = () => {
     const [isDropdownOpen, setIsDropdownOpen] = useState(false);
@@ -29,8 +29,8 @@ const Header = () => {
         };
     }, []);
 
-    const handleLogout = () => {
-        localStorage.removeItem('token');
+    const handleLogout = async () => {
+        await logout();
         window.location.href = "/login";
     };
 
@@ -9,7 +9,7 @@ import {
 import { FiUser, FiLogOut, FiSettings, FiHelpCircle, FiBarChart } from "react-icons/fi";
 import { buildToolRegistry } from "../../config/toolRegistry";
 import {FaCrown} from "react-icons/fa"; // Import tools directly from registry
-import { upgradeToPremium } from "../../services/authService.js";
+import { upgradeToPremium, logout } from "../../services/authService.js";
 import { toast } from "react-toastify";
 const Header = ({ toggleSidebar, userName, isPremium, onLogout }) => {
   const [isDropdownOpen, setIsDropdownOpen] = useState(false);
@@ -146,8 +146,8 @@ const Header = ({ toggleSidebar, userName, isPremium, onLogout }) => {
     setIsSearching(false);
   };
 
-  const handleLogout = () => {
-    localStorage.removeItem("token");
+  const handleLogout = async () => {
+    await logout();
     if (onLogout) onLogout();
     window.location.href = "/login";
   };
@@ -81,6 +81,11 @@ export const upgradeToPremium = async () => {
         });
 
         console.log("🟢 Upgrade to Premium Response:", response.data); // Log dữ liệu trả về từ server
+        // Server phát hành token mới có claim premium=true
+        const newToken = response.headers["x-auth-token"];
+        if (newToken) {
+            localStorage.setItem("token", newToken);
+        }
         return response.data; // Trả về dữ liệu người dùng đã được cập nhật
     } catch (error) {
         console.error("🔴 Upgrade to Premium Error:", error.response ? error.response.data : error);
@@ -89,10 +94,20 @@ export const upgradeToPremium = async () => {
 };
 
 /**
- * Đăng xuất người dùng (Xóa token khỏi localStorage)
+ * Đăng xuất người dùng (Thu hồi token trên server rồi xóa khỏi localStorage)
  */
-export const logout = () => {
+export const logout = async () => {
+    const token = localStorage.getItem("token");
     localStorage.removeItem("token");
+    if (!token) return;
+    try {
+        await axios.post(`${API_URL}/logout`, null, {
+            headers: { Authorization: `Bearer ${token}` },
+        });
+    } catch (error) {
+        // Token đã hết hạn/bị thu hồi: phía client vẫn coi như đã đăng xuất
+        console.error("🔴 Logout Error:", error.response ? error.response.data : error);
+    }
 };
 export const extractRoleFromToken = (token) => {
     try {
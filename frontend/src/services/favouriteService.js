@@ -59,4 +59,24 @@ export const removeFavorite = async (toolName) => {
     console.error('Error removing favorite:', error);
     throw error;
   }
-};
\ No newline at end of file
+};
+
+// Apply many adds/removes in one request (e.g. syncing favorites on a new device)
+export const syncFavorites = async (add = [], remove = []) => {
+  try {
+    const token = localStorage.getItem('token');
+    if (!token) throw new Error('Authentication required');
+
+    const response = await axios.post(`${API_URL}/batch`, { add, remove }, {
+      headers: {
+        'Content-Type': 'application/json',
+        Authorization: `Bearer ${token}`
+      }
+    });
+
+    return response.data;
+  } catch (error) {
+    console.error('Error syncing favorites:', error);
+    throw error;
+  }
+};
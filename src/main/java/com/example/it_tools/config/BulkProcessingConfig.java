@@ -0,0 +1,32 @@
+package com.example.it_tools.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared worker pool for the bulk endpoints (phone, IBAN, e-mail, MAC).
+ * Each request bounds its own in-flight tasks with {@link com.example.it_tools.util.BoundedParallel},
+ * so the queue stays at most (concurrent bulk requests x bulk.max-in-flight).
+ */
+@Configuration
+public class BulkProcessingConfig {
+
+    @Bean(name = "bulkExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService bulkExecutor(@Value("${bulk.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.it_tools.config;
+
+import com.example.it_tools.util.ResilientRequestInterceptor;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outbound HTTP for the third-party APIs (GitHub OAuth, macvendorlookup.com). All of them share one
+ * keep-alive connection pool with a connection cap per host; each upstream gets its own
+ * {@link RestTemplate} with its own timeouts, bulkhead and circuit breaker, so a slow or failing
+ * upstream can hold at most its bulkhead's worth of request threads and is cut off once it keeps failing.
+ * Metrics: httpcomponents.httpclient.pool.*, resilience4j.circuitbreaker.*, resilience4j.bulkhead.*
+ * (tagged with the upstream name) and http.client.requests.
+ */
+@Configuration
+public class HttpClientConfig {
+    static final String GITHUB = "github";
+    static final String MAC_VENDOR = "mac-vendor";
+
+    static final List<URI> GITHUB_ORIGINS = List.of(URI.create("https://github.com"), URI.create("https://api.github.com"));
+    static final List<URI> MAC_VENDOR_ORIGINS = List.of(URI.create("https://www.macvendorlookup.com"));
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager outboundConnectionManager(
+            @Value("${http.client.max-connections:100}") int maxConnections,
+            @Value("${http.client.max-connections-per-route:20}") int maxPerRoute,
+            @Value("${http.client.connection-ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager manager = connectionManager(maxConnections, maxPerRoute, ttlSeconds);
+        new PoolingHttpClientConnectionManagerMetricsBinder(manager, "outbound").bindTo(meterRegistry);
+        return manager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager outboundConnectionManager,
+                                                  @Value("${http.client.keep-alive-seconds:30}") long keepAliveSeconds) {
+        return httpClient(outboundConnectionManager, keepAliveSeconds);
+    }
+
+    /**
+     * Background refreshes of stale outbound lookups ({@link com.example.it_tools.util.RefreshingCache}).
+     * When the queue is full the refresh is skipped and the stale value keeps being served.
+     */
+    @Bean(name = "outboundRefreshExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService outboundRefreshExecutor(@Value("${http.client.refresh-threads:4}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "outbound-refresh-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public CircuitBreakerRegistry outboundCircuitBreakers(
+            @Value("${http.client.circuit.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${http.client.circuit.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${http.client.circuit.minimum-calls:10}") int minimumCalls,
+            @Value("${http.client.circuit.open-seconds:30}") long openSeconds,
+            MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .waitDurationInOpenState(Duration.ofSeconds(openSeconds))
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public BulkheadRegistry outboundBulkheads(MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.ofDefaults();
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public RestTemplate gitHubRestTemplate(RestTemplateBuilder builder, CloseableHttpClient outboundHttpClient,
+                                           PoolingHttpClientConnectionManager outboundConnectionManager,
+                                           CircuitBreakerRegistry outboundCircuitBreakers,
+                                           BulkheadRegistry outboundBulkheads,
+                                           @Value("${http.client.github.connect-timeout-ms:2000}") long connectTimeoutMillis,
+                                           @Value("${http.client.github.read-timeout-ms:5000}") long readTimeoutMillis,
+                                           @Value("${http.client.github.max-connections:20}") int maxConnections,
+                                           @Value("${http.client.github.max-concurrent-calls:20}") int maxConcurrentCalls) {
+        limitRoutes(outboundConnectionManager, GITHUB_ORIGINS, maxConnections);
+        return restTemplate(builder, outboundHttpClient,
+                Duration.ofMillis(connectTimeoutMillis), Duration.ofMillis(readTimeoutMillis),
+                bulkhead(outboundBulkheads, GITHUB, maxConcurrentCalls),
+                outboundCircuitBreakers.circuitBreaker(GITHUB));
+    }
+
+    @Bean
+    public RestTemplate macVendorRestTemplate(RestTemplateBuilder builder, CloseableHttpClient outboundHttpClient,
+                                              PoolingHttpClientConnectionManager outboundConnectionManager,
+                                              CircuitBreakerRegistry outboundCircuitBreakers,
+                                              BulkheadRegistry outboundBulkheads,
+                                              @Value("${http.client.mac-vendor.connect-timeout-ms:1000}") long connectTimeoutMillis,
+                                              @Value("${http.client.mac-vendor.read-timeout-ms:2000}") long readTimeoutMillis,
+                                              @Value("${http.client.mac-vendor.max-connections:10}") int maxConnections,
+                                              @Value("${http.client.mac-vendor.max-concurrent-calls:10}") int maxConcurrentCalls) {
+        limitRoutes(outboundConnectionManager, MAC_VENDOR_ORIGINS, maxConnections);
+        return restTemplate(builder, outboundHttpClient,
+                Duration.ofMillis(connectTimeoutMillis), Duration.ofMillis(readTimeoutMillis),
+                bulkhead(outboundBulkheads, MAC_VENDOR, maxConcurrentCalls),
+                outboundCircuitBreakers.circuitBreaker(MAC_VENDOR));
+    }
+
+    static PoolingHttpClientConnectionManager connectionManager(int maxConnections, int maxPerRoute, long ttlSeconds) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        // Kết nối nằm yên quá 2s được kiểm tra trước khi dùng lại (server có thể đã đóng)
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofSeconds(ttlSeconds))
+                        .build())
+                .build();
+    }
+
+    static CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager, long keepAliveSeconds) {
+        TimeValue maxKeepAlive = TimeValue.ofSeconds(keepAliveSeconds);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                // Giữ kết nối theo header Keep-Alive của server nhưng không quá keep-alive-seconds
+                .setKeepAliveStrategy((response, context) -> maxKeepAlive.min(
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context)))
+                .evictExpiredConnections()
+                .evictIdleConnections(maxKeepAlive)
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    static RestTemplate restTemplate(RestTemplateBuilder builder, HttpClient httpClient,
+                                     Duration connectTimeout, Duration readTimeout,
+                                     Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+        return builder
+                .requestFactory(() -> {
+                    HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+                    factory.setConnectTimeout(connectTimeout);
+                    factory.setReadTimeout(readTimeout);
+                    // Chờ lấy kết nối từ pool cũng không được quá connect timeout
+                    factory.setConnectionRequestTimeout(connectTimeout);
+                    return factory;
+                })
+                .additionalInterceptors(new ResilientRequestInterceptor(bulkhead, circuitBreaker))
+                .build();
+    }
+
+    static Bulkhead bulkhead(BulkheadRegistry registry, String name, int maxConcurrentCalls) {
+        // Không chờ: đầy là từ chối ngay, thread của request không bị giữ lại
+        return registry.bulkhead(name, BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    private static void limitRoutes(PoolingHttpClientConnectionManager manager, List<URI> origins, int maxConnections) {
+        for (URI origin : origins) {
+            boolean secure = "https".equals(origin.getScheme());
+            int port = origin.getPort() > 0 ? origin.getPort() : secure ? 443 : 80;
+            HttpHost target = new HttpHost(origin.getScheme(), origin.getHost(), port);
+            manager.setMaxPerRoute(new HttpRoute(target, null, secure), maxConnections);
+        }
+    }
+}
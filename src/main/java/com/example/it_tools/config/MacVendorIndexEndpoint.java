@@ -0,0 +1,44 @@
+package com.example.it_tools.config;
+
+import com.example.it_tools.service.MacVendorService;
+import com.example.it_tools.service.OuiIndex;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/macvendors}: size and source files of the offline OUI index.
+ * A POST reloads the registry files (e.g. after downloading a fresh copy from IEEE).
+ */
+@Component
+@Endpoint(id = "macvendors")
+public class MacVendorIndexEndpoint {
+    private final MacVendorService macVendorService;
+
+    public MacVendorIndexEndpoint(MacVendorService macVendorService) {
+        this.macVendorService = macVendorService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> index() {
+        OuiIndex index = macVendorService.index();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("blocks", index.size());
+        report.put("registries", index.sizes());
+        report.put("sources", index.sources());
+        report.put("loadedAt", index.loadedAt());
+        report.put("lastError", macVendorService.lastError());
+        report.put("remoteFallback", macVendorService.isRemoteFallback());
+        return report;
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+        macVendorService.reload();
+        return index();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.it_tools.config;
+
+import com.example.it_tools.model.RevokedToken;
+import com.example.it_tools.model.Tool;
+import com.example.it_tools.model.User;
+import com.example.it_tools.model.UserToolFavorite;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the indexes declared on the entities below once the application is up.
+ * Spring Boot leaves auto-index-creation off, so without this the annotations are never applied.
+ * Every repository finder must be served by one of these indexes (see RepositoryIndexCoverageTest).
+ */
+@Configuration
+public class MongoIndexConfig {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    public static final List<Class<?>> INDEXED_ENTITIES = List.of(Tool.class, User.class, UserToolFavorite.class, RevokedToken.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    // Lỗi gần nhất khi tạo index, theo collection (báo cáo qua /actuator/mongoindexes)
+    private final Map<String, String> lastErrors = new ConcurrentHashMap<>();
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            String collection = mongoTemplate.getCollectionName(entity);
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            List<String> errors = new ArrayList<>();
+            // Từng index riêng: username_idx lỗi vì dữ liệu trùng không được kéo email_idx theo
+            for (IndexDefinition index : declaredIndexes(entity)) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (DataAccessException e) {
+                    // Không chặn việc khởi động nếu Mongo chưa sẵn sàng
+                    errors.add(e.getMessage());
+                    logger.warn("Could not ensure index {} for {}: {}",
+                            index.getIndexOptions().get("name"), entity.getSimpleName(), e.getMessage());
+                }
+            }
+            if (errors.isEmpty()) {
+                lastErrors.remove(collection);
+            } else {
+                lastErrors.put(collection, String.join("; ", errors));
+            }
+        }
+    }
+
+    List<IndexDefinition> declaredIndexes(Class<?> entity) {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        List<IndexDefinition> indexes = new ArrayList<>();
+        resolver.resolveIndexFor(entity).forEach(indexes::add);
+        return indexes;
+    }
+
+    String lastError(String collection) {
+        return lastErrors.get(collection);
+    }
+}
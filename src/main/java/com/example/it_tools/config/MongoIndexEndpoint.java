@@ -0,0 +1,76 @@
+package com.example.it_tools.config;
+
+import org.bson.Document;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@code /actuator/mongoindexes}: the managed indexes per collection and whether each one exists.
+ * A POST re-runs {@link MongoIndexConfig#ensureIndexes()}.
+ */
+@Component
+@Endpoint(id = "mongoindexes")
+public class MongoIndexEndpoint {
+    private final MongoIndexConfig indexConfig;
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexEndpoint(MongoIndexConfig indexConfig, MongoTemplate mongoTemplate) {
+        this.indexConfig = indexConfig;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @ReadOperation
+    public Map<String, Object> indexes() {
+        Map<String, Object> collections = new LinkedHashMap<>();
+        for (Class<?> entity : MongoIndexConfig.INDEXED_ENTITIES) {
+            String collection = mongoTemplate.getCollectionName(entity);
+            Map<String, Object> report = new LinkedHashMap<>();
+
+            Set<String> existing = null;
+            try {
+                existing = mongoTemplate.indexOps(entity).getIndexInfo().stream()
+                        .map(IndexInfo::getName)
+                        .collect(Collectors.toSet());
+            } catch (DataAccessException e) {
+                report.put("error", e.getMessage());
+            }
+
+            List<Map<String, Object>> declared = new ArrayList<>();
+            for (IndexDefinition index : indexConfig.declaredIndexes(entity)) {
+                Document options = index.getIndexOptions();
+                String name = options.getString("name");
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("name", name);
+                entry.put("keys", index.getIndexKeys());
+                entry.put("unique", options.getBoolean("unique", false));
+                // null = không kiểm tra được (Mongo không truy cập được)
+                entry.put("present", existing == null ? null : existing.contains(name));
+                declared.add(entry);
+            }
+            report.put("entity", entity.getSimpleName());
+            report.put("declared", declared);
+            report.put("lastEnsureError", indexConfig.lastError(collection));
+            collections.put(collection, report);
+        }
+        return collections;
+    }
+
+    @WriteOperation
+    public Map<String, Object> ensure() {
+        indexConfig.ensureIndexes();
+        return indexes();
+    }
+}
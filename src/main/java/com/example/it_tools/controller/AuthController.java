@@ -3,17 +3,25 @@
     import com.example.it_tools.dto.AuthResponse;
     import com.example.it_tools.dto.LoginRequest;
     import com.example.it_tools.dto.RegisterRequest;
+    import com.example.it_tools.security.JwtPrincipal;
     import com.example.it_tools.service.AuthService;
+    import com.example.it_tools.service.TokenRevocationService;
+    import org.springframework.http.HttpStatus;
     import org.springframework.http.ResponseEntity;
+    import org.springframework.security.core.Authentication;
     import org.springframework.web.bind.annotation.*;
 
+    import java.util.Map;
+
     @RestController
     @RequestMapping("/auth")
     public class AuthController {
         private final AuthService authService;
+        private final TokenRevocationService revocationService;
 
-        public AuthController(AuthService authService) {
+        public AuthController(AuthService authService, TokenRevocationService revocationService) {
             this.authService = authService;
+            this.revocationService = revocationService;
         }
 
         @PostMapping("/register")
@@ -27,4 +35,24 @@
             System.out.println("📌 Login request received: " + request.getUsername());
             return ResponseEntity.ok(authService.login(request));
         }
+
+        // Thu hồi token đang dùng
+        @PostMapping("/logout")
+        public ResponseEntity<?> logout(Authentication authentication) {
+            if (authentication == null || !(authentication.getPrincipal() instanceof JwtPrincipal principal)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Not authenticated"));
+            }
+            revocationService.revoke(principal);
+            return ResponseEntity.ok(Map.of("message", "Logged out"));
+        }
+
+        // Thu hồi mọi token đã phát hành cho user (đăng xuất khỏi tất cả thiết bị)
+        @PostMapping("/logout-all")
+        public ResponseEntity<?> logoutAll(Authentication authentication) {
+            if (authentication == null || !(authentication.getPrincipal() instanceof JwtPrincipal)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Not authenticated"));
+            }
+            revocationService.revokeAllFor(authentication.getName());
+            return ResponseEntity.ok(Map.of("message", "Logged out from all sessions"));
+        }
     }
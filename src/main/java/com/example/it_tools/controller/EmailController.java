@@ -1,28 +1,127 @@
 package com.example.it_tools.controller;
 
+import com.example.it_tools.dto.EmailBatchSummary;
 import com.example.it_tools.dto.EmailRequest;
-import com.example.it_tools.dto.EmailResponse;
+import com.example.it_tools.service.EmailBatchService;
+import com.example.it_tools.service.EmailBatchService.BatchRow;
 import com.example.it_tools.service.EmailService;
+import com.example.it_tools.service.MxResolver;
+import com.example.it_tools.util.BatchInput;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/email")
 public class EmailController {
+    private static final Logger logger = LoggerFactory.getLogger(EmailController.class);
 
     private final EmailService emailService;
+    private final EmailBatchService emailBatchService;
+    private final ObjectMapper objectMapper;
 
-    public EmailController(EmailService emailService) {
+    public EmailController(EmailService emailService, EmailBatchService emailBatchService, ObjectMapper objectMapper) {
         this.emailService = emailService;
+        this.emailBatchService = emailBatchService;
+        this.objectMapper = objectMapper;
     }
 
+    // Trả về CompletableFuture: luồng Tomcat được giải phóng trong lúc chờ tra MX
     @PostMapping("/parse")
-    public ResponseEntity<?> parseEmail(@RequestBody EmailRequest request) {
+    public CompletableFuture<ResponseEntity<?>> parseEmail(@RequestBody EmailRequest request) {
         if (request.getEmail() == null || request.getEmail().isEmpty()) {
-            return ResponseEntity.badRequest().body("Email is required");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Email is required"));
+        }
+
+        return emailService.parseEmail(request).<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    // DNS không trả lời hoặc hàng đợi tra MX đầy: không biết domain có MX hay không, báo để client thử lại
+                    if (e.getCause() instanceof MxResolver.LookupFailedException) {
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .body(Map.of("message", "MX lookup failed, try again later"));
+                    }
+                    throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+                });
+    }
+
+    /**
+     * Bulk validation. The body (or a multipart "file") is a JSON array of addresses or {"email"} objects,
+     * NDJSON with the same elements, or one address per line (first CSV column, optional "email" header).
+     * Streams one NDJSON line per row as soon as it is ready, tagged with its 1-based "row", then a
+     * {"summary": ...} line. Each distinct domain is looked up once per request.
+     */
+    @PostMapping("/batch")
+    public void parseBatch(@RequestParam(name = "file", required = false) MultipartFile file,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BatchInput.Format format = file != null
+                ? BatchInput.Format.detect(file.getContentType(), file.getOriginalFilename())
+                : BatchInput.Format.detect(request.getContentType(), null);
+        InputStream in = file != null ? file.getInputStream() : request.getInputStream();
+
+        Iterator<BatchRow> rows;
+        try {
+            rows = rows(in, format);
+        } catch (UncheckedIOException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of("message", "Invalid batch body: " + e.getCause().getMessage()));
+            return;
         }
 
-        EmailResponse response = emailService.parseEmail(request);
-        return ResponseEntity.ok(response);
+        try (NdjsonResponseWriter writer = new NdjsonResponseWriter(response, objectMapper)) {
+            try {
+                EmailBatchSummary summary = emailBatchService.validate(rows, writer::write);
+                writer.write(Map.of("summary", summary));
+                logger.debug("Validated {} e-mail addresses over {} domains", summary.total(), summary.domains());
+            } catch (UncheckedIOException e) {
+                // Input hỏng giữa chừng thì báo ở dòng cuối; client đã ngắt thì chỉ ghi log
+                logger.debug("E-mail batch aborted ({}): {}", writer.isBroken() ? "client gone" : "input", e.getMessage());
+                writer.abort(e);
+            }
+        }
+    }
+
+    private Iterator<BatchRow> rows(InputStream in, BatchInput.Format format) {
+        if (format == BatchInput.Format.JSON) {
+            return BatchInput.numbered(BatchInput.jsonArray(in, objectMapper), EmailController::fromJson);
+        }
+        Iterator<String> lines = BatchInput.lines(in);
+        if (format == BatchInput.Format.NDJSON) {
+            return BatchInput.numbered(lines, (row, line) -> {
+                try {
+                    return fromJson(row, objectMapper.readTree(line));
+                } catch (IOException e) {
+                    return new BatchRow(row, line, "Malformed JSON line");
+                }
+            });
+        }
+        return BatchInput.numbered(BatchInput.withoutHeader(lines, "email"),
+                (row, line) -> new BatchRow(row, BatchInput.unquote(line.split(",", 2)[0]), null));
+    }
+
+    private static BatchRow fromJson(long row, JsonNode node) {
+        if (node.isTextual()) {
+            return new BatchRow(row, node.asText(), null);
+        }
+        if (node.isObject()) {
+            return new BatchRow(row, node.path("email").asText(null), null);
+        }
+        return new BatchRow(row, node.toString(), "Expected an address or an object with \"email\"");
     }
 }
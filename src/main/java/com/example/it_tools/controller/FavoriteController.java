@@ -3,6 +3,8 @@ package com.example.it_tools.controller;
 import com.example.it_tools.model.User;
 import com.example.it_tools.model.UserToolFavorite;
 import com.example.it_tools.repository.UserRepository;
+import com.example.it_tools.repository.UserToolFavoriteRepositoryCustom.FavoriteBatchCounts;
+import com.example.it_tools.security.JwtPrincipal;
 import com.example.it_tools.service.FavoriteService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -12,13 +14,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/favorites")
 @RequiredArgsConstructor
 public class FavoriteController {
+    private static final int MAX_BATCH_SIZE = 500;
 
     private final FavoriteService favoriteService;
     private final UserRepository userRepository;
@@ -81,6 +86,47 @@ public class FavoriteController {
                 .body(Map.of("message", "Tool removed from favorites"));
     }
 
+    /**
+     * POST /api/favorites/batch
+     * Body: {"add": ["JSON Formatter"], "remove": ["Bcrypt"]}
+     * Apply many changes in one round trip; adding an existing favorite or removing a missing one is a no-op
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@RequestBody Map<String, List<String>> request) {
+        List<String> add = request.getOrDefault("add", List.of());
+        List<String> remove = request.getOrDefault("remove", List.of());
+
+        if (add.size() + remove.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(Map.of("message", "At most " + MAX_BATCH_SIZE + " changes per batch"));
+        }
+        Set<String> toAdd = new LinkedHashSet<>(add);
+        Set<String> toRemove = new LinkedHashSet<>(remove);
+        if (toAdd.stream().anyMatch(this::isBlank) || toRemove.stream().anyMatch(this::isBlank)) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(Map.of("message", "Tool name is required"));
+        }
+        if (toAdd.stream().anyMatch(toRemove::contains)) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(Map.of("message", "A tool cannot be both added and removed"));
+        }
+
+        String userId = getCurrentUserId();
+        FavoriteBatchCounts counts = favoriteService.applyBatch(userId, toAdd, toRemove);
+
+        return ResponseEntity.ok(Map.of(
+                "added", counts.added(),
+                "removed", counts.removed()
+        ));
+    }
+
+    private boolean isBlank(String toolName) {
+        return toolName == null || toolName.trim().isEmpty();
+    }
+
     /**
      * Helper method to get the current authenticated user's ID
      */
@@ -91,6 +137,11 @@ public class FavoriteController {
         }
         
         Object principal = authentication.getPrincipal();
+
+        // Token mới mang sẵn user id trong claim uid: không cần truy vấn Mongo
+        if (principal instanceof JwtPrincipal jwtPrincipal && jwtPrincipal.getUserId() != null) {
+            return jwtPrincipal.getUserId();
+        }
         
         // Check if principal is Spring Security's UserDetails
         if (principal instanceof UserDetails) {
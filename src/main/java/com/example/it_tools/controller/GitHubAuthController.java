@@ -1,12 +1,18 @@
 package com.example.it_tools.controller;
 
+import com.example.it_tools.model.User;
 import com.example.it_tools.security.JwtUtil;
+import com.example.it_tools.security.UserPrincipal;
 import com.example.it_tools.service.CustomUserDetailsService;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.HashMap;
@@ -16,10 +22,10 @@ import java.util.Map;
 @RestController
 @RequestMapping("/auth/github")
 public class GitHubAuthController {
+    private static final Logger logger = LoggerFactory.getLogger(GitHubAuthController.class);
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userService;
-    @Autowired
     private final RestTemplate restTemplate;
 
     @Value("${spring.security.oauth2.client.registration.github.client-id}")
@@ -31,7 +37,8 @@ public class GitHubAuthController {
     @Value("${spring.security.oauth2.client.registration.github.redirect-uri}")
     private String redirectUri;
 
-    public GitHubAuthController(JwtUtil jwtUtil, CustomUserDetailsService userService, RestTemplate restTemplate) {
+    public GitHubAuthController(JwtUtil jwtUtil, CustomUserDetailsService userService,
+                                @Qualifier("gitHubRestTemplate") RestTemplate restTemplate) {
         this.jwtUtil = jwtUtil;
         this.userService = userService;
         this.restTemplate = restTemplate;
@@ -39,28 +46,41 @@ public class GitHubAuthController {
 
     @GetMapping("/callback")
     public ResponseEntity<Void> githubLogin(@RequestParam("code") String code, HttpServletResponse response) {
-        System.out.println("Received GitHub OAuth callback with code: " + code);
+        try {
+            return completeLogin(code, response);
+        } catch (HttpClientErrorException e) {
+            // 4xx từ GitHub: code hết hạn/đã dùng hoặc token bị từ chối, lỗi của phía đăng nhập chứ không phải GitHub
+            logger.warn("GitHub rejected the login: {}", e.getStatusCode());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            // GitHub lỗi, chậm quá timeout hoặc circuit breaker đang mở
+            logger.warn("GitHub call failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    private ResponseEntity<Void> completeLogin(String code, HttpServletResponse response) {
+        // Không ghi log code, access token hay JWT: đều dùng được để đăng nhập
+        logger.debug("Received GitHub OAuth callback");
 
         if (code == null || code.isEmpty()) {
-            System.out.println("Error: Code is missing or empty");
+            logger.debug("GitHub callback without code");
             return ResponseEntity.badRequest().build();
         }
 
         // 🔹 Lấy Access Token từ GitHub
         String accessToken = getAccessToken(code);
         if (accessToken == null) {
-            System.out.println("Error: Failed to retrieve GitHub access token");
+            logger.debug("GitHub returned no access token");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        System.out.println("GitHub Access Token: " + accessToken);
 
         // 🔹 Lấy thông tin user từ GitHub
         Map<String, Object> userInfo = getUserInfo(accessToken);
         if (userInfo == null) {
-            System.out.println("Error: Failed to fetch user info from GitHub");
+            logger.debug("GitHub returned no user info");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        System.out.println("GitHub User Info: " + userInfo);
 
         // Lấy email nếu có, nếu không thì lấy từ API emails
         String email = (String) userInfo.get("email");
@@ -68,29 +88,25 @@ public class GitHubAuthController {
             email = getUserEmail(accessToken);
         }
         if (email == null) {
-            System.out.println("Error: No verified email found for the user");
+            logger.debug("No verified primary e-mail for GitHub user {}", userInfo.get("login"));
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        System.out.println("User Email: " + email);
 
+        String login = (String) userInfo.get("login");
         String name = (String) userInfo.get("name");
         if (name == null || name.isEmpty()) {
-            name = (String) userInfo.get("login"); // Gán login làm tên mặc định
+            name = login; // Gán login làm tên mặc định
         }
-        System.out.println("User Name: " + name);
 
-        // 🔹 Đăng ký user nếu chưa có
-        userService.registerIfNotExists(email, name);
-        System.out.println("User registered or already exists");
+        // 🔹 Đăng ký user nếu chưa có (tên trùng thì dùng login hoặc thêm hậu tố)
+        User user = userService.registerIfNotExists(email, name, login);
+        logger.debug("GitHub login for user {}", user.getUsername());
 
-        // 🔹 Tạo JWT
-        UserDetails userDetails = userService.loadUserByUsername(name);
-        String token = jwtUtil.generateToken(userDetails);
-        System.out.println("Generated JWT Token: " + token);
+        // 🔹 Tạo JWT từ user vừa lấy/tạo, không cần tra cứu lại
+        String token = jwtUtil.generateToken(new UserPrincipal(user));
 
         // 🔹 Chuyển hướng về Frontend với token
         String frontendUrl = "http://localhost:5173/auth/github/callback?token=" + token;
-        System.out.println("Redirecting to frontend: " + frontendUrl);
         response.setHeader("Location", frontendUrl);
 
         return ResponseEntity.status(302).build();
@@ -99,8 +115,6 @@ public class GitHubAuthController {
 
     // 📌 Hàm lấy Access Token từ GitHub
     private String getAccessToken(String code) {
-        System.out.println("Requesting GitHub Access Token...");
-
         String tokenUrl = "https://github.com/login/oauth/access_token";
 
         HttpHeaders headers = new HttpHeaders();
@@ -116,10 +130,9 @@ public class GitHubAuthController {
         HttpEntity<Map<String, String>> request = new HttpEntity<>(body, headers);
         ResponseEntity<Map> response = restTemplate.exchange(tokenUrl, HttpMethod.POST, request, Map.class);
 
-        System.out.println("GitHub Response: " + response.getBody());
-
         if (response.getBody() == null || !response.getBody().containsKey("access_token")) {
-            System.err.println("Failed to get access token.");
+            // GitHub trả 200 kèm "error" khi code sai hoặc hết hạn; chỉ ghi mã lỗi, không ghi cả body
+            logger.debug("GitHub token exchange failed: {}", response.getBody() == null ? null : response.getBody().get("error"));
             return null;
         }
 
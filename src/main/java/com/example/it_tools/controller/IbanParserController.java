@@ -1,53 +1,79 @@
 package com.example.it_tools.controller;
 
-import org.iban4j.Iban;
-import org.iban4j.IbanFormatException;
-import org.iban4j.IbanUtil;
+import com.example.it_tools.dto.IbanBatchSummary;
+import com.example.it_tools.service.IbanBatchService;
+import com.example.it_tools.service.IbanParserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Map;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
 @RequestMapping("/api/iban")
 public class IbanParserController {
+    private static final Logger logger = LoggerFactory.getLogger(IbanParserController.class);
+
+    private final IbanParserService ibanParserService;
+    private final IbanBatchService ibanBatchService;
+    private final ObjectMapper objectMapper;
+
+    public IbanParserController(IbanParserService ibanParserService, IbanBatchService ibanBatchService,
+                                ObjectMapper objectMapper) {
+        this.ibanParserService = ibanParserService;
+        this.ibanBatchService = ibanBatchService;
+        this.objectMapper = objectMapper;
+    }
 
     @PostMapping("/parse")
     public ResponseEntity<?> parseIban(@RequestBody Map<String, String> body) {
-        String ibanInput = body.get("iban");
-
         try {
-            // Normalize IBAN (remove spaces and upper-case)
-            String normalizedIban = ibanInput.replaceAll("\\s+", "").toUpperCase();
-
-            // Validate IBAN (format + checksum)
-            IbanUtil.validate(normalizedIban);
-
-            // Parse IBAN object
-            Iban iban = Iban.valueOf(normalizedIban);
-
-            Map<String, Object> result = new HashMap<>();
-            result.put("isValid", true);
-            result.put("countryCode", iban.getCountryCode().name());
-            result.put("bban", iban.getBban());
-            result.put("friendlyFormat", formatFriendly(normalizedIban));
-            result.put("compactFormat", normalizedIban);
-
-            return ResponseEntity.ok(result);
-
-        } catch (IbanFormatException | IllegalArgumentException e) {
-            Map<String, Object> errorResult = new HashMap<>();
-            errorResult.put("isValid", false);
-            errorResult.put("error", "Invalid IBAN: " + e.getMessage());
-            return ResponseEntity.ok(errorResult);
+            // Invalid IBAN (format, checksum, unsupported country) -> isValid=false
+            return ResponseEntity.ok(ibanParserService.parse(body.get("iban")));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Something went wrong.");
         }
     }
 
-    private String formatFriendly(String iban) {
-        return iban.replaceAll("(.{4})(?!$)", "$1 ").trim();
+    /**
+     * Validates a whole file: a multipart "file" or the raw request body, with one IBAN per line or CSV
+     * with the IBAN in {@code column} (0-based). Streams one NDJSON line per non-blank input line, then a
+     * final {"summary": ...} line with counts by country and error type.
+     */
+    @PostMapping("/batch")
+    public void parseBatch(@RequestParam(defaultValue = "0") int column,
+                           @RequestParam(name = "file", required = false) MultipartFile file,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (column < 0) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of("message", "column must be >= 0"));
+            return;
+        }
+        try (InputStream in = file != null ? file.getInputStream() : request.getInputStream();
+             ReadableByteChannel channel = Channels.newChannel(in);
+             NdjsonResponseWriter writer = new NdjsonResponseWriter(response, objectMapper)) {
+            try {
+                IbanBatchSummary summary = ibanBatchService.validate(channel, column, writer::write);
+                writer.write(Map.of("summary", summary));
+                logger.debug("Validated {} IBANs", summary.total());
+            } catch (UncheckedIOException e) {
+                // Input hỏng giữa chừng thì báo ở dòng cuối; client đã ngắt thì chỉ ghi log
+                logger.debug("IBAN batch aborted ({}): {}", writer.isBroken() ? "client gone" : "input", e.getMessage());
+                writer.abort(e);
+            }
+        }
     }
 }
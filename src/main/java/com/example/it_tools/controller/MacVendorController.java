@@ -1,28 +1,84 @@
 package com.example.it_tools.controller;
 
+import com.example.it_tools.dto.MacBatchSummary;
+import com.example.it_tools.service.MacBatchService;
+import com.example.it_tools.service.MacVendorService;
+import com.example.it_tools.util.MacAddress;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Map;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
 @RequestMapping("/api/mac")
 public class MacVendorController {
+    private static final Logger logger = LoggerFactory.getLogger(MacVendorController.class);
 
-    private final RestTemplate restTemplate;
+    private final MacVendorService macVendorService;
+    private final MacBatchService macBatchService;
+    private final ObjectMapper objectMapper;
 
-    public MacVendorController(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public MacVendorController(MacVendorService macVendorService, MacBatchService macBatchService,
+                               ObjectMapper objectMapper) {
+        this.macVendorService = macVendorService;
+        this.macBatchService = macBatchService;
+        this.objectMapper = objectMapper;
     }
 
+    // Mảng vendor giống API macvendorlookup (rỗng nếu không tìm thấy)
     @GetMapping("/{macAddress}")
     public ResponseEntity<?> getVendorInfo(@PathVariable String macAddress) {
-        String url = "https://www.macvendorlookup.com/api/v2/" + macAddress;
+        MacAddress mac = MacAddress.parse(macAddress);
+        if (mac == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid MAC address"));
+        }
         try {
-            ResponseEntity<Object[]> response = restTemplate.getForEntity(url, Object[].class);
-            return ResponseEntity.ok(response.getBody());
+            return ResponseEntity.ok(macVendorService.lookup(mac));
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            // API dự phòng lỗi, quá timeout hoặc circuit breaker đang mở
+            logger.debug("MAC vendor fallback unavailable: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "Vendor lookup service unavailable"));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Failed to fetch vendor info");
         }
     }
+
+    /**
+     * Bulk lookup over a multipart "file" or the raw body: any text or CSV (ARP table, DHCP leases, ...).
+     * Every MAC in colon, dash, dot or bare notation is resolved from the offline index and streamed as one
+     * NDJSON line, followed by a {"summary": ...} line with per-vendor counts.
+     */
+    @PostMapping("/batch")
+    public void lookupBatch(@RequestParam(name = "file", required = false) MultipartFile file,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try (InputStream in = file != null ? file.getInputStream() : request.getInputStream();
+             ReadableByteChannel channel = Channels.newChannel(in);
+             NdjsonResponseWriter writer = new NdjsonResponseWriter(response, objectMapper)) {
+            try {
+                MacBatchSummary summary = macBatchService.resolve(channel, writer::write);
+                writer.write(Map.of("summary", summary));
+                logger.debug("Resolved {} MAC addresses from {} lines", summary.macs(), summary.lines());
+            } catch (UncheckedIOException e) {
+                // Input hỏng giữa chừng thì báo ở dòng cuối; client đã ngắt thì chỉ ghi log
+                logger.debug("MAC batch aborted ({}): {}", writer.isBroken() ? "client gone" : "input", e.getMessage());
+                writer.abort(e);
+            }
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package com.example.it_tools.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Writes one JSON value per line straight to the response for the bulk endpoints.
+ * Output is not flushed per line; the response buffer sends data as it fills.
+ * Once a write fails the client is gone and nothing more is sent, including on {@link #close()}.
+ */
+final class NdjsonResponseWriter implements Closeable {
+    static final String CONTENT_TYPE = "application/x-ndjson";
+
+    private final OutputStream out;
+    private final SequenceWriter writer;
+    // Ghi ra response đã lỗi (client ngắt): không ghi thêm gì nữa
+    private boolean broken;
+
+    NdjsonResponseWriter(HttpServletResponse response, ObjectMapper objectMapper) throws IOException {
+        response.setContentType(CONTENT_TYPE);
+        response.setCharacterEncoding("UTF-8");
+        this.out = response.getOutputStream();
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(out);
+    }
+
+    /**
+     * @throws UncheckedIOException if the client went away
+     */
+    void write(Object value) {
+        try {
+            writer.write(value);
+        } catch (IOException e) {
+            broken = true;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ends a batch stopped by {@code e}. A failure reading the input is reported in a final
+     * {"error": ...} line; a failure writing the response is dropped, there is no one left to tell.
+     */
+    void abort(UncheckedIOException e) {
+        if (broken) {
+            return;
+        }
+        try {
+            write(Map.of("error", "Batch aborted: " + e.getCause().getMessage()));
+        } catch (UncheckedIOException ignored) {
+            // Client ngắt đúng lúc ghi dòng lỗi: broken đã được đặt, close() sẽ không ghi nữa
+        }
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (broken) {
+            // Không đóng writer: nó sẽ cố flush phần còn trong buffer ra kết nối đã hỏng
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Kết nối đã hỏng, không còn gì để làm
+            }
+            return;
+        }
+        try (writer) {
+            writer.flush();
+            out.write('\n');
+        }
+    }
+}
@@ -1,20 +1,39 @@
 package com.example.it_tools.controller;
 
+import com.example.it_tools.service.PhoneParserService;
+import com.example.it_tools.service.PhoneParserService.BatchRow;
+import com.example.it_tools.util.BatchInput;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.i18n.phonenumbers.*;
-import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.HashMap;
-import java.util.Locale;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.Map;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
 @RequestMapping("/api/phone")
 public class PhoneParserController {
+    private static final Logger logger = LoggerFactory.getLogger(PhoneParserController.class);
 
-    private final PhoneNumberUtil phoneUtil = PhoneNumberUtil.getInstance();
+    private final PhoneParserService phoneParserService;
+    private final ObjectMapper objectMapper;
+
+    public PhoneParserController(PhoneParserService phoneParserService, ObjectMapper objectMapper) {
+        this.phoneParserService = phoneParserService;
+        this.objectMapper = objectMapper;
+    }
 
     @PostMapping("/parse")
     public ResponseEntity<?> parsePhone(@RequestBody Map<String, String> body) {
@@ -22,28 +41,85 @@ public class PhoneParserController {
         String country = body.get("country");
 
         try {
-            PhoneNumber number = phoneUtil.parse(phone, country);
-            boolean isValid = phoneUtil.isValidNumber(number);
-            boolean isPossible = phoneUtil.isPossibleNumber(number);
-            PhoneNumberUtil.PhoneNumberType type = phoneUtil.getNumberType(number);
-
-            Map<String, Object> result = new HashMap<>();
-            result.put("country", phoneUtil.getRegionCodeForNumber(number));
-            result.put("countryName", new Locale("", phoneUtil.getRegionCodeForNumber(number)).getDisplayCountry());
-            result.put("callingCode", phoneUtil.getCountryCodeForRegion(country));
-            result.put("isValid", isValid);
-            result.put("isPossible", isPossible);
-            result.put("type", type.toString());
-            result.put("international", phoneUtil.format(number, PhoneNumberUtil.PhoneNumberFormat.INTERNATIONAL));
-            result.put("national", phoneUtil.format(number, PhoneNumberUtil.PhoneNumberFormat.NATIONAL));
-            result.put("e164", phoneUtil.format(number, PhoneNumberUtil.PhoneNumberFormat.E164));
-            result.put("rfc3966", phoneUtil.format(number, PhoneNumberUtil.PhoneNumberFormat.RFC3966));
-
-            return ResponseEntity.ok(result);
+            return ResponseEntity.ok(phoneParserService.parse(phone, country));
         } catch (NumberParseException e) {
             return ResponseEntity.badRequest().body("Invalid phone number: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Something went wrong.");
         }
     }
+
+    /**
+     * Bulk parse. The body (or a multipart "file") is a JSON array of numbers or {"phone", "country"} objects,
+     * NDJSON with the same elements, or CSV lines "phone[,country]"; {@code country} is the default region.
+     * Streams one NDJSON line per row in completion order, each tagged with its 1-based "row" number;
+     * rows that cannot be parsed carry an "error" field instead of failing the batch.
+     */
+    @PostMapping("/batch")
+    public void parseBatch(@RequestParam(required = false) String country,
+                           @RequestParam(name = "file", required = false) MultipartFile file,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BatchInput.Format format = file != null
+                ? BatchInput.Format.detect(file.getContentType(), file.getOriginalFilename())
+                : BatchInput.Format.detect(request.getContentType(), null);
+        InputStream in = file != null ? file.getInputStream() : request.getInputStream();
+
+        Iterator<BatchRow> rows;
+        try {
+            rows = rows(in, format, country);
+        } catch (UncheckedIOException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of("message", "Invalid batch body: " + e.getCause().getMessage()));
+            return;
+        }
+
+        try (NdjsonResponseWriter writer = new NdjsonResponseWriter(response, objectMapper)) {
+            try {
+                long count = phoneParserService.parseBatch(rows, writer::write);
+                logger.debug("Parsed {} phone numbers", count);
+            } catch (UncheckedIOException e) {
+                // Input hỏng giữa chừng thì báo ở dòng cuối; client đã ngắt thì chỉ ghi log
+                logger.debug("Phone batch aborted ({}): {}", writer.isBroken() ? "client gone" : "input", e.getMessage());
+                writer.abort(e);
+            }
+        }
+    }
+
+    private Iterator<BatchRow> rows(InputStream in, BatchInput.Format format, String defaultCountry) {
+        if (format == BatchInput.Format.JSON) {
+            Iterator<JsonNode> elements = BatchInput.jsonArray(in, objectMapper);
+            return BatchInput.numbered(elements, (row, node) -> fromJson(row, node, defaultCountry));
+        }
+        Iterator<String> lines = BatchInput.lines(in);
+        if (format == BatchInput.Format.NDJSON) {
+            return BatchInput.numbered(lines, (row, line) -> {
+                try {
+                    return fromJson(row, objectMapper.readTree(line), defaultCountry);
+                } catch (IOException e) {
+                    return new BatchRow(row, line, null, "Malformed JSON line");
+                }
+            });
+        }
+        return BatchInput.numbered(BatchInput.withoutHeader(lines, "phone"),
+                (row, line) -> fromCsv(row, line, defaultCountry));
+    }
+
+    private static BatchRow fromJson(long row, JsonNode node, String defaultCountry) {
+        if (node.isTextual() || node.isNumber()) {
+            return new BatchRow(row, node.asText(), defaultCountry, null);
+        }
+        if (node.isObject()) {
+            String country = node.hasNonNull("country") ? node.get("country").asText() : defaultCountry;
+            return new BatchRow(row, node.path("phone").asText(null), country, null);
+        }
+        return new BatchRow(row, node.toString(), null, "Expected a phone number or an object with \"phone\"");
+    }
+
+    private static BatchRow fromCsv(long row, String line, String defaultCountry) {
+        int comma = line.indexOf(',');
+        String phone = BatchInput.unquote(comma < 0 ? line : line.substring(0, comma));
+        String country = comma < 0 ? "" : BatchInput.unquote(line.substring(comma + 1));
+        return new BatchRow(row, phone, country.isEmpty() ? defaultCountry : country, null);
+    }
 }
@@ -1,61 +1,224 @@
 package com.example.it_tools.controller;
 
+import com.example.it_tools.dto.ToolBulkOperation;
+import com.example.it_tools.dto.ToolPatch;
+import com.example.it_tools.dto.ToolQuery;
 import com.example.it_tools.model.Tool;
+import com.example.it_tools.service.ToolCatalog;
 import com.example.it_tools.service.ToolService;
+import com.example.it_tools.service.ToolUploadService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import org.springframework.web.multipart.MultipartFile;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import org.springframework.http.HttpStatus;
-
-import java.io.FileOutputStream;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/tools")
 public class ToolController {
+    private static final Logger logger = LoggerFactory.getLogger(ToolController.class);
+    static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+    static final int MAX_BULK_OPERATIONS = 1000;
+
     private final ToolService toolService;
+    private final ToolUploadService toolUploadService;
+    // Reader dùng chung, tạo một lần từ ObjectMapper của Spring
+    private final ObjectReader toolReader;
 
-    public ToolController(ToolService toolService) {
+    public ToolController(ToolService toolService, ToolUploadService toolUploadService, ObjectMapper objectMapper) {
         this.toolService = toolService;
+        this.toolUploadService = toolUploadService;
+        this.toolReader = objectMapper.readerFor(Tool.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
     }
 
+    /**
+     * Serves the pre-encoded catalog snapshot. Spring answers {@code If-None-Match} /
+     * {@code If-Modified-Since} with 304 from the ETag and Last-Modified headers set here.
+     */
     @GetMapping
-    public ResponseEntity<List<Tool>> getAllTools() {
-        // Ensure Tool IDs are returned as Strings
-        List<Tool> tools = toolService.getAllTools();
-        tools.forEach(tool -> tool.setToolId(tool.getId().toHexString()));  // Use setToolId instead of settoolId
-        return ResponseEntity.ok(tools);
+    public ResponseEntity<byte[]> getAllTools(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Phục vụ trực tiếp từ snapshot trong bộ nhớ, không truy cập Mongo
+        ToolCatalog catalog = toolService.getCatalog();
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .lastModified(catalog.getLastModified())
+                .header(CATALOG_VERSION_HEADER, String.valueOf(catalog.getVersion()))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return builder.eTag(catalog.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(catalog.getGzipJson());
+        }
+        return builder.eTag(catalog.getEtag()).body(catalog.getJson());
+    }
+
+    // Accept-Encoding theo RFC 9110: gzip;q=0 là từ chối, "*" áp dụng khi gzip không được nêu riêng
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = qValue(parts) > 0;
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return accepted;
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double qValue(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 
+    /**
+     * GET /api/tools/query?category=&enabled=&premium=&fields=name,path&limit=&cursor=
+     * Page through the catalog in (order, _id) order; pass back nextCursor to continue.
+     */
+    @GetMapping("/query")
+    public ResponseEntity<?> queryTools(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) Boolean premium,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        ToolQuery query = new ToolQuery();
+        query.setCategory(category);
+        query.setEnabled(enabled);
+        query.setPremium(premium);
+        query.setFields(fields);
+        query.setCursor(cursor);
+        query.setLimit(limit);
+        try {
+            return ResponseEntity.ok(toolService.queryTools(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/tools/search?q=jsn formater&limit=10
+     * Typo-tolerant ranked search from the in-memory index
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Tool>> searchTools(
+            @RequestParam("q") String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(toolService.searchTools(q, Math.min(limit, 50)));
+    }
+
+    /**
+     * GET /api/tools/suggest?prefix=con
+     * Word completions for the search box
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(toolService.suggestTerms(prefix, Math.min(limit, 50)));
+    }
+
+    /**
+     * POST /api/tools/bulk
+     * Body: {"operations": [{"toolId": "...", "enabled": false}, {"toolId": "...", "order": 3}, {"toolId": "...", "delete": true}]}
+     * Returns one result per operation, in request order
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> bulkUpdate(@RequestBody Map<String, List<ToolBulkOperation>> request) {
+        List<ToolBulkOperation> operations = request.get("operations");
+        if (operations == null || operations.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Operations are required"));
+        }
+        if (operations.size() > MAX_BULK_OPERATIONS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "At most " + MAX_BULK_OPERATIONS + " operations per request"));
+        }
+        return ResponseEntity.ok(Map.of("results", toolService.applyBulk(operations)));
+    }
+
+    /**
+     * POST /api/tools/{id}/toggle?enabled=true&premium=false&expectedRevision=3&returnNew=true
+     * One atomic server-side update; 409 if expectedRevision is given and no longer current
+     */
     @PostMapping("/{id}/toggle")
     public ResponseEntity<?> toggleTool(
             @PathVariable("id") String id,
             @RequestParam boolean enabled,
-            @RequestParam(required = false) Boolean premium
+            @RequestParam(required = false) Boolean premium,
+            @RequestParam(required = false) Long expectedRevision,
+            @RequestParam(defaultValue = "true") boolean returnNew
     ) {
-        Optional<Tool> optionalTool = toolService.getById(id);
-        if (optionalTool.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
+        ToolPatch patch = new ToolPatch();
+        patch.setEnabled(enabled);
+        patch.setPremium(premium);
 
-        Tool tool = optionalTool.get();
-        tool.setEnabled(enabled);
-        if (premium != null) {
-            tool.setPremium(premium);
+        try {
+            return toolService.patchTool(id, patch, expectedRevision, returnNew)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
         }
+    }
 
-        return ResponseEntity.ok(toolService.updateTool(tool));
+    /**
+     * PATCH /api/tools/{id}?expectedRevision=3&returnNew=true
+     * Body: only the fields to change, e.g. {"order": 4, "premium": true}
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchTool(
+            @PathVariable("id") String id,
+            @RequestBody ToolPatch patch,
+            @RequestParam(required = false) Long expectedRevision,
+            @RequestParam(defaultValue = "true") boolean returnNew
+    ) {
+        if (patch.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Nothing to update"));
+        }
+        try {
+            return toolService.patchTool(id, patch, expectedRevision, returnNew)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
     }
 
     // Thêm hàm xóa tool
@@ -81,35 +244,14 @@ public class ToolController {
             @RequestParam("tool") String toolJson) {
         try {
             // Parse tool JSON string to Tool object
-            ObjectMapper mapper = new ObjectMapper();
-            // Configure the mapper BEFORE parsing the JSON
-            mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            
-            Tool tool = mapper.readValue(toolJson, Tool.class);
-            
-            // Save tool to database first
-            Tool savedTool = toolService.addTool(tool);
-            
-            // Create directories if they don't exist
-            String projectRoot = System.getProperty("user.dir");
-            String toolsDirectory = projectRoot + "/frontend/src/components/tools/" + tool.getCategory().toLowerCase();
-            File directory = new File(toolsDirectory);
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-            
-            // Generate file name from tool name
-            String fileName = tool.getName().toLowerCase().replace(" ", "-") + ".jsx";
-            File targetFile = new File(directory, fileName);
-            
-            // Save the file
-            try (FileOutputStream fos = new FileOutputStream(targetFile)) {
-                fos.write(file.getBytes());
-            }
-            
-            return ResponseEntity.ok(savedTool);
+            Tool tool = toolReader.readValue(toolJson);
+
+            // File được ghi bền trước, sau đó mới lưu Tool vào database
+            return ResponseEntity.ok(toolUploadService.upload(tool, file));
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return ResponseEntity.badRequest().build();
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.error("Tool upload failed", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(null);
         }
@@ -2,6 +2,9 @@ package com.example.it_tools.controller;
 
 import com.example.it_tools.model.User;
 import com.example.it_tools.repository.UserRepository;
+import com.example.it_tools.security.JwtUtil;
+import com.example.it_tools.security.UserPrincipal;
+import com.example.it_tools.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -13,7 +16,11 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class UserController {
 
+    static final String AUTH_TOKEN_HEADER = "X-Auth-Token";
+
     private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
 
     @GetMapping("/profile")
     public ResponseEntity<?> getUserProfile(@AuthenticationPrincipal UserDetails userDetails) {
@@ -32,7 +39,12 @@ public class UserController {
                     // Cập nhật trạng thái Premium
                     user.setPremium(true);
                     userRepository.save(user); // Lưu lại thay đổi vào cơ sở dữ liệu
-                    return ResponseEntity.ok(user); // Trả về người dùng đã được cập nhật
+                    userDetailsService.evict(username); // Xóa UserDetails cũ trong cache
+                    // Token cũ còn claim premium=false: phát hành token mới để client thay thế
+                    String token = jwtUtil.generateToken(new UserPrincipal(user));
+                    return ResponseEntity.ok()
+                            .header(AUTH_TOKEN_HEADER, token)
+                            .body(user); // Trả về người dùng đã được cập nhật
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
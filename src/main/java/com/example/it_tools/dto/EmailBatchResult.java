@@ -0,0 +1,30 @@
+package com.example.it_tools.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One NDJSON line of the bulk e-mail endpoint: the 1-based row and the fields of {@link EmailResponse}.
+ * {@code hasMXRecord} is only present for syntactically valid addresses whose domain was looked up;
+ * {@code error} for rows that could not be read, or valid ones whose MX lookup got no answer.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmailBatchResult(long row, String email, boolean valid, String username, String domain,
+                               Boolean hasMXRecord, String error) {
+
+    public static EmailBatchResult syntax(long row, EmailResponse response) {
+        return new EmailBatchResult(row, response.getEmail(), response.isValid(), response.getUsername(),
+                response.getDomain(), null, null);
+    }
+
+    public static EmailBatchResult failed(long row, String email, String error) {
+        return new EmailBatchResult(row, email, false, null, null, null, error);
+    }
+
+    public EmailBatchResult withMx(boolean hasMX) {
+        return new EmailBatchResult(row, email, valid, username, domain, hasMX, error);
+    }
+
+    public EmailBatchResult withError(String error) {
+        return new EmailBatchResult(row, email, valid, username, domain, hasMXRecord, error);
+    }
+}
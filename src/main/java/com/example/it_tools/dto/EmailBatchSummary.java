@@ -0,0 +1,10 @@
+package com.example.it_tools.dto;
+
+/**
+ * Totals for a bulk e-mail request, written as the last NDJSON line wrapped in {"summary": ...}.
+ * {@code mxSkipped} counts valid addresses whose lookup got no answer (neither with nor without MX);
+ * {@code domains} is the number of MX lookups made, one per distinct domain unless a lookup was skipped.
+ */
+public record EmailBatchSummary(long total, long valid, long invalid, long withMx, long withoutMx, long mxSkipped,
+                                long domains) {
+}
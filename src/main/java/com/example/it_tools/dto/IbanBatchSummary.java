@@ -0,0 +1,14 @@
+package com.example.it_tools.dto;
+
+import java.util.Map;
+
+/**
+ * Totals for an IBAN file, written as the last NDJSON line wrapped in {"summary": ...}.
+ * Invalid lines are counted under the country prefix they start with ("??" when there is none).
+ */
+public record IbanBatchSummary(long total, long valid, long invalid,
+                               Map<String, CountryCount> byCountry, Map<String, Long> byErrorType) {
+
+    public record CountryCount(long valid, long invalid) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.it_tools.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * One NDJSON line of the IBAN file endpoint: the 1-based line number in the file and the IBAN cell,
+ * followed by the fields of {@link IbanParseResult}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"line", "input"})
+public record IbanLineResult(long line, String input, @JsonUnwrapped IbanParseResult result) {
+}
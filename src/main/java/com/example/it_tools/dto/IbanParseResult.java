@@ -0,0 +1,27 @@
+package com.example.it_tools.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Result of validating one IBAN; serialized with the same keys as the original map response
+ * (only "isValid", "error" and the machine-readable "errorType" when the IBAN is invalid).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IbanParseResult(
+        @JsonProperty("isValid") boolean isValid,
+        String countryCode,
+        String bban,
+        String friendlyFormat,
+        String compactFormat,
+        String error,
+        String errorType) {
+
+    public static IbanParseResult valid(String countryCode, String bban, String friendlyFormat, String compactFormat) {
+        return new IbanParseResult(true, countryCode, bban, friendlyFormat, compactFormat, null, null);
+    }
+
+    public static IbanParseResult invalid(String errorType, String error) {
+        return new IbanParseResult(false, null, null, null, null, error, errorType);
+    }
+}
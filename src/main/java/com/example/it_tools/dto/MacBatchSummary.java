@@ -0,0 +1,10 @@
+package com.example.it_tools.dto;
+
+import java.util.Map;
+
+/**
+ * Totals for a bulk MAC request, written as the last NDJSON line wrapped in {"summary": ...}.
+ * {@code byVendor} counts addresses per company, most frequent first.
+ */
+public record MacBatchSummary(long lines, long macs, long found, long unknown, Map<String, Long> byVendor) {
+}
@@ -0,0 +1,14 @@
+package com.example.it_tools.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * One NDJSON line of the bulk MAC endpoint: where the address was found, its canonical form, and the
+ * vendor fields of {@link MacVendor} when the block is known ({@code found} = false otherwise).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"line", "input", "mac", "found"})
+public record MacLookupResult(long line, String input, String mac, boolean found, @JsonUnwrapped MacVendor vendor) {
+}
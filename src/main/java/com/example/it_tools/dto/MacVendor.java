@@ -0,0 +1,16 @@
+package com.example.it_tools.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One vendor block, with the field names of the macvendorlookup.com v2 API that the frontend reads
+ * ("company", "addressL1", "addressL3", "country").
+ *
+ * @param type IEEE registry: MA-L (24-bit prefix), MA-M (28-bit) or MA-S / IAB (36-bit)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record MacVendor(String startHex, String endHex, String company,
+                        String addressL1, String addressL2, String addressL3, String country, String type) {
+}
@@ -0,0 +1,21 @@
+package com.example.it_tools.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * One NDJSON line of the batch endpoint: the row number and input, then either the parse result fields or an error.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"row", "input"})
+public record PhoneBatchResult(long row, String input, @JsonUnwrapped PhoneParseResult result, String error) {
+
+    public static PhoneBatchResult parsed(long row, String input, PhoneParseResult result) {
+        return new PhoneBatchResult(row, input, result, null);
+    }
+
+    public static PhoneBatchResult failed(long row, String input, String error) {
+        return new PhoneBatchResult(row, input, null, error);
+    }
+}
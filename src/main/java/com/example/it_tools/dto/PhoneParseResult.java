@@ -0,0 +1,19 @@
+package com.example.it_tools.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Result of parsing one phone number; serialized with the same keys as the original map response.
+ */
+public record PhoneParseResult(
+        String country,
+        String countryName,
+        int callingCode,
+        @JsonProperty("isValid") boolean isValid,
+        @JsonProperty("isPossible") boolean isPossible,
+        String type,
+        String international,
+        String national,
+        String e164,
+        String rfc3966) {
+}
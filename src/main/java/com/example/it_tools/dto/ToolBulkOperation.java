@@ -0,0 +1,14 @@
+package com.example.it_tools.dto;
+
+import lombok.Data;
+
+@Data
+public class ToolBulkOperation {
+    private String toolId;
+    // true = xóa tool, các field còn lại bị bỏ qua
+    private boolean delete;
+    // Chỉ các field khác null mới được cập nhật
+    private Boolean enabled;
+    private Boolean premium;
+    private Integer order;
+}
@@ -0,0 +1,16 @@
+package com.example.it_tools.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ToolBulkResult {
+    public enum Status { UPDATED, DELETED, NOT_FOUND, INVALID, FAILED }
+
+    // Vị trí của thao tác trong request
+    private int index;
+    private String toolId;
+    private Status status;
+    private String error;
+}
@@ -0,0 +1,16 @@
+package com.example.it_tools.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class ToolPage {
+    // Chỉ chứa các field được yêu cầu (projection), toolId luôn có
+    private List<Map<String, Object>> items;
+    // null khi đã hết dữ liệu
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package com.example.it_tools.dto;
+
+import lombok.Data;
+
+@Data
+public class ToolPatch {
+    // Chỉ các field khác null mới được $set
+    private String name;
+    private String description;
+    private String category;
+    private String path;
+    private Integer order;
+    private Boolean enabled;
+    private Boolean premium;
+
+    public boolean isEmpty() {
+        return name == null && description == null && category == null && path == null
+                && order == null && enabled == null && premium == null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.it_tools.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ToolQuery {
+    private String category;
+    private Boolean enabled;
+    private Boolean premium;
+    private String cursor;
+    private int limit = 50;
+    // Danh sách field cần trả về, rỗng = tất cả
+    private List<String> fields;
+}
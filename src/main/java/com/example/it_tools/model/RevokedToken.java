@@ -0,0 +1,32 @@
+package com.example.it_tools.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A revoked JWT ({@code id} = jti) or a per-user cutoff ({@code id} = "user:" + username,
+ * every token issued up to {@code issuedBefore} is revoked).
+ * Mongo removes the entry once {@code expiresAt} passes, i.e. when no affected token can still be valid.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String id;
+
+    private String username;
+
+    // null với thu hồi một token đơn lẻ
+    private Instant issuedBefore;
+
+    @Indexed(name = "expires_at_ttl_idx", expireAfter = "0s")
+    private Instant expiresAt;
+}
@@ -1,10 +1,25 @@
 package com.example.it_tools.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.bson.types.ObjectId;
 
 @Document(collection = "tools")
+// Phục vụ truy vấn lọc + sắp xếp theo (order, _id) của /api/tools/query:
+// mỗi tổ hợp bộ lọc (category, enabled, premium) có một index bắt đầu đúng bằng các field đó rồi tới (order, _id)
+@CompoundIndexes({
+        @CompoundIndex(name = "category_enabled_premium_order_idx", def = "{'category': 1, 'enabled': 1, 'premium': 1, 'order': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_enabled_order_idx", def = "{'category': 1, 'enabled': 1, 'order': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_premium_order_idx", def = "{'category': 1, 'premium': 1, 'order': 1, '_id': 1}"),
+        @CompoundIndex(name = "enabled_premium_order_idx", def = "{'enabled': 1, 'premium': 1, 'order': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_order_idx", def = "{'category': 1, 'order': 1, '_id': 1}"),
+        @CompoundIndex(name = "enabled_order_idx", def = "{'enabled': 1, 'order': 1, '_id': 1}"),
+        @CompoundIndex(name = "premium_order_idx", def = "{'premium': 1, 'order': 1, '_id': 1}"),
+        @CompoundIndex(name = "order_idx", def = "{'order': 1, '_id': 1}")
+})
 public class Tool {
     @Id
     private ObjectId id;
@@ -14,10 +29,16 @@ public class Tool {
     private String name;
     private String description;
     private String category;
+    // Khóa mà frontend dùng để ghép Tool với component; tra cứu khi upload lại
+    @Indexed(name = "path_idx")
     private String path;
     private int order;
     private boolean enabled;
     private boolean premium;
+    // Tăng 1 sau mỗi cập nhật từng phần, dùng cho optimistic locking
+    private long revision;
+    // SHA-256 của file component lần upload gần nhất
+    private String contentHash;
 
     // Constructors
     public Tool() {}
@@ -105,6 +126,22 @@ public class Tool {
         this.premium = premium;
     }
 
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     // Phương thức này sẽ được gọi khi đối tượng Tool được lưu vào database
     public void setId(ObjectId id) {
         this.id = id;
@@ -2,6 +2,7 @@ package com.example.it_tools.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -11,7 +12,9 @@ import org.springframework.data.mongodb.core.mapping.Document;
 public class User {
     @Id
     private String id;
+    @Indexed(name = "username_idx", unique = true) // findByUsername / existsByUsername
     private String username;
+    @Indexed(name = "email_idx") // findByEmail (đăng nhập GitHub)
     private String email;
     private String password;
     private Boolean isPremium;
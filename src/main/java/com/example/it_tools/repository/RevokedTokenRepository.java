@@ -0,0 +1,12 @@
+package com.example.it_tools.repository;
+
+import com.example.it_tools.model.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+    // Các mục còn hiệu lực, dùng để dựng lại bộ lọc trong bộ nhớ
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+}
@@ -5,5 +5,8 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.Optional;
 
-public interface ToolRepository extends MongoRepository<Tool, String> {
+public interface ToolRepository extends MongoRepository<Tool, String>, ToolRepositoryCustom {
+    Optional<Tool> findFirstByPath(String path);
+
+    Optional<Tool> findFirstByCategoryAndName(String category, String name);
 }
@@ -0,0 +1,23 @@
+package com.example.it_tools.repository;
+
+import com.example.it_tools.dto.ToolBulkOperation;
+import com.example.it_tools.dto.ToolBulkResult;
+import com.example.it_tools.dto.ToolPage;
+import com.example.it_tools.dto.ToolPatch;
+import com.example.it_tools.dto.ToolQuery;
+import com.example.it_tools.model.Tool;
+
+import java.util.List;
+
+public interface ToolRepositoryCustom {
+
+    // Filtered, projected page of tools ordered by (order, _id), continuing after query.cursor
+    ToolPage findPage(ToolQuery query);
+
+    // Applies all operations as one unordered bulk write; one result per operation, in request order.
+    // Results come from the write's matched/deleted counts, plus an _id lookup of the delete targets taken just before the write
+    List<ToolBulkResult> applyBulk(List<ToolBulkOperation> operations);
+
+    // Single findAndModify with $set + $inc revision; null when no document matched id (and expectedRevision if given)
+    Tool patch(String id, ToolPatch patch, Long expectedRevision, boolean returnNew);
+}
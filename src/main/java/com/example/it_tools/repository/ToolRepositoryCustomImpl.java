@@ -0,0 +1,265 @@
+package com.example.it_tools.repository;
+
+import com.example.it_tools.dto.ToolBulkOperation;
+import com.example.it_tools.dto.ToolBulkResult;
+import com.example.it_tools.dto.ToolBulkResult.Status;
+import com.example.it_tools.dto.ToolPage;
+import com.example.it_tools.dto.ToolPatch;
+import com.example.it_tools.dto.ToolQuery;
+import com.example.it_tools.model.Tool;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ToolRepositoryCustomImpl implements ToolRepositoryCustom {
+    static final int MAX_LIMIT = 200;
+    // Các field lọc bằng của findPage; mọi tổ hợp đều có index (xem Tool)
+    static final List<String> FILTER_FIELDS = List.of("category", "enabled", "premium");
+    static final List<String> PROJECTABLE_FIELDS =
+            List.of("name", "description", "category", "path", "order", "enabled", "premium");
+
+    private final MongoTemplate mongoTemplate;
+
+    public ToolRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public ToolPage findPage(ToolQuery toolQuery) {
+        int limit = Math.max(1, Math.min(toolQuery.getLimit(), MAX_LIMIT));
+        List<Criteria> criteria = new ArrayList<>();
+        if (toolQuery.getCategory() != null) {
+            criteria.add(Criteria.where("category").is(toolQuery.getCategory()));
+        }
+        if (toolQuery.getEnabled() != null) {
+            criteria.add(Criteria.where("enabled").is(toolQuery.getEnabled()));
+        }
+        if (toolQuery.getPremium() != null) {
+            criteria.add(Criteria.where("premium").is(toolQuery.getPremium()));
+        }
+        if (toolQuery.getCursor() != null && !toolQuery.getCursor().isEmpty()) {
+            criteria.add(afterCursor(toolQuery.getCursor()));
+        }
+
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "order", "_id"));
+        query.limit(limit + 1); // Lấy thêm 1 để biết còn trang sau hay không
+
+        // _id và order luôn cần cho cursor
+        query.fields().include("_id", "order");
+        List<String> fields = toolQuery.getFields();
+        boolean allFields = fields == null || fields.isEmpty();
+        for (String field : allFields ? PROJECTABLE_FIELDS : fields) {
+            if (!PROJECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            query.fields().include(field);
+        }
+
+        String collection = mongoTemplate.getCollectionName(Tool.class);
+        List<Document> documents = mongoTemplate.find(query, Document.class, collection);
+
+        boolean hasMore = documents.size() > limit;
+        List<Document> page = hasMore ? documents.subList(0, limit) : documents;
+        List<Map<String, Object>> items = new ArrayList<>(page.size());
+        for (Document document : page) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("toolId", document.getObjectId("_id").toHexString());
+            for (String field : allFields ? PROJECTABLE_FIELDS : fields) {
+                item.put(field, document.get(field));
+            }
+            items.add(item);
+        }
+
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+        return new ToolPage(items, nextCursor);
+    }
+
+    @Override
+    public List<ToolBulkResult> applyBulk(List<ToolBulkOperation> operations) {
+        List<ToolBulkResult> results = new ArrayList<>(operations.size());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Tool.class);
+        // Vị trí trong bulk -> vị trí trong request
+        List<Integer> bulkToRequest = new ArrayList<>();
+        List<String> deleteIds = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            ToolBulkOperation operation = operations.get(i);
+            String error = validate(operation);
+            results.add(new ToolBulkResult(i, operation.getToolId(), error == null ? null : Status.INVALID, error));
+            if (error != null) {
+                continue;
+            }
+            Query byId = new Query(Criteria.where("_id").is(new ObjectId(operation.getToolId())));
+            if (operation.isDelete()) {
+                bulk.remove(byId);
+                deleteIds.add(operation.getToolId());
+            } else {
+                bulk.updateOne(byId, toUpdate(operation));
+            }
+            bulkToRequest.add(i);
+        }
+        if (bulkToRequest.isEmpty()) {
+            return results;
+        }
+        // Số bản ghi bị xóa không cho biết id nào không tồn tại: lấy danh sách _id ngay trước khi ghi
+        Set<String> existedBeforeWrite = deleteIds.isEmpty() ? Set.of() : existingIds(deleteIds);
+
+        BulkWriteResult written;
+        try {
+            written = bulk.execute();
+        } catch (BulkOperationException e) {
+            written = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                ToolBulkResult result = results.get(bulkToRequest.get(error.getIndex()));
+                result.setStatus(Status.FAILED);
+                result.setError(error.getMessage());
+            }
+        }
+
+        List<ToolBulkResult> updates = new ArrayList<>();
+        List<ToolBulkResult> deletes = new ArrayList<>();
+        for (int index : bulkToRequest) {
+            ToolBulkResult result = results.get(index);
+            if (result.getStatus() == null) {
+                (operations.get(index).isDelete() ? deletes : updates).add(result);
+            }
+        }
+        // Trường hợp thường gặp: số bản ghi khớp đúng bằng số thao tác, không cần truy vấn thêm
+        // Chỉ truy vấn khi có thao tác cập nhật không khớp
+        Set<String> updatable = written.getMatchedCount() >= updates.size()
+                ? null : existingIds(updates.stream().map(ToolBulkResult::getToolId).toList());
+        for (ToolBulkResult result : updates) {
+            result.setStatus(updatable == null || updatable.contains(result.getToolId()) ? Status.UPDATED : Status.NOT_FOUND);
+        }
+        boolean allDeleted = written.getDeletedCount() >= deletes.size();
+        for (ToolBulkResult result : deletes) {
+            // Có xóa thiếu: tool đã tồn tại ngay trước khi ghi là tool vừa bị xóa
+            boolean deleted = allDeleted || written.getDeletedCount() > 0 && existedBeforeWrite.contains(result.getToolId());
+            result.setStatus(deleted ? Status.DELETED : Status.NOT_FOUND);
+        }
+        return results;
+    }
+
+    // Một truy vấn _id (chỉ lấy _id) cho biết id nào đang tồn tại
+    private Set<String> existingIds(List<String> toolIds) {
+        List<ObjectId> ids = toolIds.stream().map(ObjectId::new).toList();
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("_id");
+        Set<String> existing = new HashSet<>();
+        for (Document document : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Tool.class))) {
+            existing.add(document.getObjectId("_id").toHexString());
+        }
+        return existing;
+    }
+
+    private static String validate(ToolBulkOperation operation) {
+        if (operation.getToolId() == null || !ObjectId.isValid(operation.getToolId())) {
+            return "Invalid tool id";
+        }
+        if (!operation.isDelete() && operation.getEnabled() == null
+                && operation.getPremium() == null && operation.getOrder() == null) {
+            return "Nothing to update";
+        }
+        return null;
+    }
+
+    private static Update toUpdate(ToolBulkOperation operation) {
+        Update update = new Update();
+        if (operation.getEnabled() != null) {
+            update.set("enabled", operation.getEnabled());
+        }
+        if (operation.getPremium() != null) {
+            update.set("premium", operation.getPremium());
+        }
+        if (operation.getOrder() != null) {
+            update.set("order", operation.getOrder());
+        }
+        return update.inc("revision", 1);
+    }
+
+    @Override
+    public Tool patch(String id, ToolPatch patch, Long expectedRevision, boolean returnNew) {
+        if (!ObjectId.isValid(id)) {
+            return null;
+        }
+        Criteria criteria = Criteria.where("_id").is(new ObjectId(id));
+        if (expectedRevision != null) {
+            criteria = expectedRevision == 0
+                    // Tài liệu cũ chưa có field revision được coi là revision 0
+                    ? criteria.orOperator(Criteria.where("revision").is(0L), Criteria.where("revision").exists(false))
+                    : criteria.and("revision").is(expectedRevision);
+        }
+
+        Update update = new Update();
+        if (patch.getName() != null) {
+            update.set("name", patch.getName());
+        }
+        if (patch.getDescription() != null) {
+            update.set("description", patch.getDescription());
+        }
+        if (patch.getCategory() != null) {
+            update.set("category", patch.getCategory());
+        }
+        if (patch.getPath() != null) {
+            update.set("path", patch.getPath());
+        }
+        if (patch.getOrder() != null) {
+            update.set("order", patch.getOrder());
+        }
+        if (patch.getEnabled() != null) {
+            update.set("enabled", patch.getEnabled());
+        }
+        if (patch.getPremium() != null) {
+            update.set("premium", patch.getPremium());
+        }
+        update.inc("revision", 1);
+
+        return mongoTemplate.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(returnNew), Tool.class);
+    }
+
+    // Cursor = base64url("order:_id") của phần tử cuối trang trước
+    private static String encodeCursor(Document last) {
+        Number order = (Number) last.get("order");
+        String raw = (order == null ? 0 : order.intValue()) + ":" + last.getObjectId("_id").toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Criteria afterCursor(String cursor) {
+        String raw;
+        int order;
+        ObjectId id;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            order = Integer.parseInt(raw.substring(0, sep));
+            id = new ObjectId(raw.substring(sep + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new Criteria().orOperator(
+                Criteria.where("order").gt(order),
+                new Criteria().andOperator(Criteria.where("order").is(order), Criteria.where("_id").gt(id)));
+    }
+}
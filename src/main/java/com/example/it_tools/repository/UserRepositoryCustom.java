@@ -0,0 +1,14 @@
+package com.example.it_tools.repository;
+
+/**
+ * Targeted writes on {@code users} that must not overwrite fields changed elsewhere.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Replaces only the stored password hash.
+     *
+     * @return true when the user exists
+     */
+    boolean updatePassword(String userId, String encodedPassword);
+}
@@ -0,0 +1,22 @@
+package com.example.it_tools.repository;
+
+import com.example.it_tools.model.User;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean updatePassword(String userId, String encodedPassword) {
+        // Chỉ $set password: role/isPremium vừa đổi ở chỗ khác không bị ghi đè bằng bản cũ
+        Query query = Query.query(Criteria.where("id").is(userId));
+        return mongoTemplate.updateFirst(query, Update.update("password", encodedPassword), User.class).getMatchedCount() > 0;
+    }
+}
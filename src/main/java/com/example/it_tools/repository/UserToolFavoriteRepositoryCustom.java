@@ -0,0 +1,38 @@
+package com.example.it_tools.repository;
+
+import com.example.it_tools.model.User;
+import com.example.it_tools.model.UserToolFavorite;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Favorites queries written against {@code user.$id}.
+ * Derived finders on the {@code @DBRef} field would match the whole DBRef document,
+ * which the {@code user_tool_idx} index cannot serve.
+ */
+public interface UserToolFavoriteRepositoryCustom {
+
+    // Find all favorites for a specific user
+    List<UserToolFavorite> findByUser(User user);
+
+    // Find a specific favorite by user and tool name
+    Optional<UserToolFavorite> findByUserAndToolName(User user, String toolName);
+
+    // Delete a favorite by user and tool name
+    void deleteByUserAndToolName(User user, String toolName);
+
+    // Check if a tool is favorited by a user
+    boolean existsByUserAndToolName(User user, String toolName);
+
+    /**
+     * Idempotently adds and removes favorites for one user in a single unordered bulk write.
+     *
+     * @return number of favorites actually inserted and deleted
+     */
+    FavoriteBatchCounts applyBatch(String userId, Collection<String> add, Collection<String> remove);
+
+    record FavoriteBatchCounts(int added, int removed) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.it_tools.repository;
+
+import com.example.it_tools.model.User;
+import com.example.it_tools.model.UserToolFavorite;
+import com.mongodb.DBRef;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public class UserToolFavoriteRepositoryCustomImpl implements UserToolFavoriteRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public UserToolFavoriteRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<UserToolFavorite> findByUser(User user) {
+        return mongoTemplate.find(byUser(refId(user.getId())), UserToolFavorite.class);
+    }
+
+    @Override
+    public Optional<UserToolFavorite> findByUserAndToolName(User user, String toolName) {
+        return Optional.ofNullable(mongoTemplate.findOne(byUserAndTool(refId(user.getId()), toolName), UserToolFavorite.class));
+    }
+
+    @Override
+    public void deleteByUserAndToolName(User user, String toolName) {
+        mongoTemplate.remove(byUserAndTool(refId(user.getId()), toolName), UserToolFavorite.class);
+    }
+
+    @Override
+    public boolean existsByUserAndToolName(User user, String toolName) {
+        return mongoTemplate.exists(byUserAndTool(refId(user.getId()), toolName), UserToolFavorite.class);
+    }
+
+    @Override
+    public FavoriteBatchCounts applyBatch(String userId, Collection<String> add, Collection<String> remove) {
+        if (add.isEmpty() && remove.isEmpty()) {
+            return new FavoriteBatchCounts(0, 0);
+        }
+        Object userRefId = refId(userId);
+        DBRef userRef = new DBRef(mongoTemplate.getCollectionName(User.class), userRefId);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserToolFavorite.class);
+
+        // Truy vấn khớp đúng index unique user_tool_idx {'user.$id': 1, 'toolName': 1}
+        for (String toolName : add) {
+            Update insertOnly = new Update()
+                    .setOnInsert("user", userRef)
+                    .setOnInsert("createdAt", LocalDateTime.now());
+            bulk.upsert(byUserAndTool(userRefId, toolName), insertOnly);
+        }
+        for (String toolName : remove) {
+            bulk.remove(byUserAndTool(userRefId, toolName));
+        }
+
+        try {
+            BulkWriteResult result = bulk.execute();
+            return new FavoriteBatchCounts(result.getUpserts().size(), result.getDeletedCount());
+        } catch (BulkOperationException e) {
+            // Hai upsert đồng thời cùng tool: bản thua bị trùng khóa nhưng kết quả vẫn đúng
+            for (BulkWriteError error : e.getErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            BulkWriteResult partial = e.getResult();
+            return new FavoriteBatchCounts(partial.getUpserts().size(), partial.getDeletedCount());
+        }
+    }
+
+    // Cùng cách Spring lưu @DBRef: ObjectId nếu id hợp lệ, ngược lại giữ chuỗi
+    static Object refId(String userId) {
+        return ObjectId.isValid(userId) ? new ObjectId(userId) : userId;
+    }
+
+    static Query byUser(Object userRefId) {
+        return new Query(Criteria.where("user.$id").is(userRefId));
+    }
+
+    static Query byUserAndTool(Object userRefId, String toolName) {
+        return new Query(Criteria.where("user.$id").is(userRefId).and("toolName").is(toolName));
+    }
+}
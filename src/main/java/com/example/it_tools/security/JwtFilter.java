@@ -1,41 +1,66 @@
 package com.example.it_tools.security;
 
+import com.example.it_tools.service.TokenRevocationService;
+import com.example.it_tools.util.LruCache;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
+
+    // Các endpoint permitAll không cần danh tính người gọi: bỏ qua toàn bộ xử lý JWT
+    static final List<String> PUBLIC_PATHS = List.of(
+            "/auth/login", "/auth/register", "/auth/github/**", "/error",
+            "/api/phone/**", "/api/iban/**", "/api/mac/**", "/api/email/**");
+
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService revocationService;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    // SHA-256(token) -> principal đã xác minh, hết hạn cùng lúc với token (exp)
+    private final LruCache<String, JwtPrincipal> verifiedTokens;
 
-    public JwtFilter(JwtUtil jwtUtil) {
+    public JwtFilter(JwtUtil jwtUtil, TokenRevocationService revocationService,
+                     @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize) {
         this.jwtUtil = jwtUtil;
+        this.revocationService = revocationService;
+        this.verifiedTokens = new LruCache<>(verifiedCacheSize);
     }
 
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
-            throws ServletException, IOException {
-        String requestURI = request.getRequestURI();
-
-        // 🚀 Bỏ qua filter cho /auth/login và /auth/register
-        if (requestURI.startsWith("/auth/login") || requestURI.startsWith("/auth/register")) {
-            chain.doFilter(request, response);
-            return;
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : PUBLIC_PATHS) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
         }
+        return false;
+    }
 
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
         // ✅ Bỏ qua request OPTIONS để tránh lỗi CORS
         if (request.getMethod().equalsIgnoreCase("OPTIONS")) {
             response.setStatus(HttpServletResponse.SC_OK);
@@ -44,37 +69,52 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String token = null;
-        String username = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            token = authorizationHeader.substring(7);
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(token);
+                JwtPrincipal principal = authenticate(token);
+                // Kiểm tra cả khi trúng cache: token có thể bị thu hồi sau khi đã xác minh
+                if (revocationService.isRevoked(principal)) {
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revoked");
+                    return;
+                }
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities());
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                logger.debug("Authenticated {} with roles {}", principal.getUsername(), principal.getAuthorities());
             } catch (ExpiredJwtException e) {
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token expired");
                 return;
+            } catch (JwtException | IllegalArgumentException e) {
+                // Token sai chữ ký hoặc hỏng: tiếp tục như request chưa xác thực
+                logger.debug("Rejected JWT: {}", e.getMessage());
             }
         }
+        chain.doFilter(request, response);
+    }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            System.out.println("✅ Token hợp lệ, username: " + username);
-            List<String> roles = jwtUtil.extractRoles(token);
-            System.out.println("✅ Các roles trong token: " + roles);
-
-            List<GrantedAuthority> authorities = roles.stream()
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toList());
-
-            UserDetails userDetails = new User(username, "", authorities);
+    // Một lần parse cho token mới; token đã gặp được trả thẳng từ cache
+    private JwtPrincipal authenticate(String token) {
+        String key = digest(token);
+        JwtPrincipal cached = verifiedTokens.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        JwtPrincipal principal = jwtUtil.verify(token);
+        Duration ttl = Duration.between(Instant.now(), principal.getExpiresAt());
+        if (!ttl.isNegative() && !ttl.isZero()) {
+            verifiedTokens.put(key, principal, ttl);
+        }
+        return principal;
+    }
 
-            if (jwtUtil.isTokenValid(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, authorities);
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                System.out.println("✅ Authentication set with roles: " + authorities);
-            }
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        chain.doFilter(request, response);
     }
 }
@@ -0,0 +1,75 @@
+package com.example.it_tools.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated caller rebuilt from JWT claims only, so request handling needs no user lookup.
+ * Premium state is as of token issue time; tokens are re-issued when it changes.
+ */
+public class JwtPrincipal implements UserDetails {
+    private final String username;
+    // null với token cũ được phát hành trước khi có claim uid
+    private final String userId;
+    private final boolean premium;
+    private final List<GrantedAuthority> authorities;
+    // jti, null với token phát hành trước khi có thu hồi từng token
+    private final String tokenId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    public JwtPrincipal(String username, String userId, boolean premium, List<GrantedAuthority> authorities,
+                        String tokenId, Instant issuedAt, Instant expiresAt) {
+        this.username = username;
+        this.userId = userId;
+        this.premium = premium;
+        this.authorities = List.copyOf(authorities);
+        this.tokenId = tokenId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public boolean isPremium() {
+        return premium;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal[" + username + "]";
+    }
+}
@@ -2,13 +2,19 @@ package com.example.it_tools.security;
 
 import ch.qos.logback.classic.Logger;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -17,12 +23,25 @@ import org.slf4j.LoggerFactory;
 @Component
 public class JwtUtil {
     private static final Logger logger = (Logger) LoggerFactory.getLogger(JwtUtil.class);
+    static final String USER_ID_CLAIM = "uid";
+    static final String PREMIUM_CLAIM = "premium";
+
     @Value("${jwt.secret}")
     private String SECRET_KEY;
 
     @Value("${jwt.expiration}")
     private long EXPIRATION_TIME;
 
+    // Khóa ký và parser được dựng một lần, JwtParser an toàn khi dùng đa luồng
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = new SecretKeySpec(Decoders.BASE64.decode(SECRET_KEY), SignatureAlgorithm.HS256.getJcaName());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     // ✅ Tạo token JWT với roles
     public String generateToken(UserDetails userDetails) {
         List<String> roles = userDetails.getAuthorities().stream()
@@ -31,13 +50,19 @@ public class JwtUtil {
 
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", roles); // ✅ Thêm roles vào claims
+        if (userDetails instanceof UserPrincipal principal) {
+            // ✅ Thêm id và trạng thái premium để không phải tra cứu user mỗi request
+            claims.put(USER_ID_CLAIM, principal.getId());
+            claims.put(PREMIUM_CLAIM, principal.isPremium());
+        }
 
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString()) // jti để có thể thu hồi từng token
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -56,6 +81,27 @@ public class JwtUtil {
         return extractAllClaims(token).get("roles", List.class);
     }
 
+    /**
+     * Verifies signature and expiry with a single parse and builds the principal from the claims.
+     *
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws io.jsonwebtoken.JwtException        if the token is malformed or the signature does not match
+     */
+    public JwtPrincipal verify(String token) {
+        Claims claims = extractAllClaims(token);
+        List<String> roles = claims.get("roles", List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+        return new JwtPrincipal(claims.getSubject(),
+                claims.get(USER_ID_CLAIM, String.class),
+                Boolean.TRUE.equals(claims.get(PREMIUM_CLAIM, Boolean.class)),
+                authorities,
+                claims.getId(),
+                claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant());
+    }
+
     // ✅ Hàm trích xuất claims chung
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
@@ -64,10 +110,7 @@ public class JwtUtil {
 
     // ✅ Giải mã JWT và lấy toàn bộ claims
     Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(SECRET_KEY)
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     // ✅ Kiểm tra token có hết hạn chưa
@@ -75,13 +118,12 @@ public class JwtUtil {
         return extractExpiration(token).before(new Date());
     }
 
-    // ✅ Kiểm tra token có hợp lệ với user không
+    // ✅ Kiểm tra token có hợp lệ với user không (một lần parse)
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String extractedUsername = extractUsername(token);
-
-        // 🔍 Log để kiểm tra giá trị
-        System.out.println("Roles từ token: " + extractRoles(token));
-        System.out.println("Token hợp lệ? " + (extractedUsername.equals(userDetails.getUsername()) && !isTokenExpired(token)));
-        return extractedUsername.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        final Claims claims = extractAllClaims(token);
+        boolean valid = claims.getSubject().equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date());
+        logger.debug("Token valid for {}: {}", userDetails.getUsername(), valid);
+        return valid;
     }
 }
@@ -15,6 +15,18 @@ public class UserPrincipal implements UserDetails {
         this.user = user;
     }
 
+    public User getUser() {
+        return user;
+    }
+
+    public String getId() {
+        return user.getId();
+    }
+
+    public boolean isPremium() {
+        return Boolean.TRUE.equals(user.getIsPremium());
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())); // Dùng ENUM nên gọi .name()
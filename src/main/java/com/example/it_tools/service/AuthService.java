@@ -7,9 +7,11 @@ import com.example.it_tools.model.Role;
 import com.example.it_tools.model.User;
 import com.example.it_tools.repository.UserRepository;
 import com.example.it_tools.security.JwtUtil;
+import com.example.it_tools.security.PasswordHasher;
+import com.example.it_tools.security.UserPrincipal;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,13 +22,15 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final CustomUserDetailsService userDetailsService;
+    private final PasswordHasher passwordHasher;
 
-    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
+                       PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.passwordHasher = passwordHasher;
     }
 
     public String register(RegisterRequest request) {
@@ -40,10 +44,16 @@ public class AuthService {
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         user.setRole(Role.valueOf(String.valueOf(request.getRole())));
         user.setIsPremium(request.getIsPremium());
-        userRepository.save(user);
+        try {
+            userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            // Hai lần đăng ký cùng tên song song: username_idx chặn bản thứ hai
+            logger.warn("Username already exists: {}", request.getUsername());
+            return "Username already exists";
+        }
         logger.info("User registered successfully: {}", request.getUsername());
         return "User registered successfully";
     }
@@ -51,20 +61,30 @@ public class AuthService {
     public AuthResponse login(LoginRequest request) {
         logger.info("Login attempt for username: {}", request.getUsername());
 
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> {
-                    logger.error("User not found: {}", request.getUsername());
-                    return new RuntimeException("User not found");
-                });
+        // Một lần tra cứu (thường trúng cache) dùng cho cả kiểm tra mật khẩu và tạo token
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(request.getUsername());
+        } catch (UsernameNotFoundException e) {
+            logger.error("User not found: {}", request.getUsername());
+            throw new RuntimeException("User not found");
+        }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), userDetails.getPassword())) {
             logger.error("Invalid password for user: {}", request.getUsername());
             throw new RuntimeException("Invalid password");
         }
 
+        // Cost BCrypt đã đổi: băm lại mật khẩu khi đang có mật khẩu gốc.
+        // Chỉ ghi trường password; bản User trong cache có thể đã cũ nên không sửa nó mà evict
+        if (userDetails instanceof UserPrincipal principal && passwordHasher.needsRehash(principal.getPassword())) {
+            userRepository.updatePassword(principal.getId(), passwordHasher.encode(request.getPassword()));
+            userDetailsService.evict(request.getUsername());
+            logger.info("Rehashed password for user: {}", request.getUsername());
+        }
+
         logger.info("Login successful for user: {}", request.getUsername());
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getUsername());
         String token = jwtUtil.generateToken(userDetails);
 
         return new AuthResponse(token);
@@ -4,38 +4,131 @@ import com.example.it_tools.model.Role;
 import com.example.it_tools.model.User;
 import com.example.it_tools.repository.UserRepository;
 import com.example.it_tools.security.UserPrincipal;
+import com.example.it_tools.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
+    private static final int LOCK_STRIPES = 64;
+    private static final int MAX_USERNAME_ATTEMPTS = 20;
+
     private final UserRepository userRepository;
+    // username -> UserPrincipal, hết hạn sau TTL; phải evict khi đổi role/premium/mật khẩu
+    private final LruCache<String, UserPrincipal> userCache;
+    // Nhiều lần login đồng thời cho cùng user chỉ truy vấn Mongo một lần
+    private final Object[] loadLocks = newLocks();
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${security.user-cache.max-size:10000}") int maxSize,
+                                    @Value("${security.user-cache.ttl-seconds:300}") long ttlSeconds) {
         this.userRepository = userRepository;
+        this.userCache = new LruCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        return new UserPrincipal(user);
+        UserPrincipal cached = userCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (lockFor(username)) {
+            cached = userCache.get(username);
+            if (cached != null) {
+                return cached;
+            }
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            UserPrincipal principal = new UserPrincipal(user);
+            userCache.put(username, principal);
+            return principal;
+        }
+    }
+
+    /**
+     * Drops the cached details after the user's role, premium state or password changed.
+     */
+    public void evict(String username) {
+        userCache.remove(username);
     }
-    public void registerIfNotExists(String email, String name) {
+
+    /**
+     * Returns the user with this email, creating it on first OAuth login.
+     * Usernames are unique (username_idx): the display name is tried first, then the login, then the
+     * display name with a numeric suffix.
+     */
+    public User registerIfNotExists(String email, String name, String login) {
         Optional<User> existingUser = userRepository.findByEmail(email);
+        if (existingUser.isPresent()) {
+            return existingUser.get();
+        }
+        // Hai lần đăng nhập đầu tiên song song của cùng email không tạo ra hai user
+        synchronized (lockFor(email)) {
+            existingUser = userRepository.findByEmail(email);
+            if (existingUser.isPresent()) {
+                return existingUser.get();
+            }
+            List<String> candidates = usernameCandidates(name, login);
+            for (int attempt = 0; attempt < MAX_USERNAME_ATTEMPTS; attempt++) {
+                // "Nguyen Van A", "nguyenva", "Nguyen Van A-2", "Nguyen Van A-3", ...
+                String username = attempt < candidates.size()
+                        ? candidates.get(attempt)
+                        : candidates.get(0) + "-" + (attempt - candidates.size() + 2);
+                if (userRepository.existsByUsername(username)) {
+                    continue;
+                }
+                User newUser = new User();
+                newUser.setEmail(email);
+                newUser.setUsername(username);
+                newUser.setPassword(""); // Vì OAuth không dùng mật khẩu
+                newUser.setRole(Role.valueOf("USER")); // Gán quyền mặc định
+                newUser.setIsPremium(false);
+                try {
+                    return userRepository.save(newUser);
+                } catch (DuplicateKeyException e) {
+                    // Instance khác vừa lấy tên này, hoặc vừa tạo chính user của email này
+                    existingUser = userRepository.findByEmail(email);
+                    if (existingUser.isPresent()) {
+                        return existingUser.get();
+                    }
+                }
+            }
+            throw new IllegalStateException("No free username for " + email);
+        }
+    }
+
+    private static List<String> usernameCandidates(String name, String login) {
+        List<String> candidates = new ArrayList<>(2);
+        if (name != null && !name.isBlank()) {
+            candidates.add(name);
+        }
+        if (login != null && !login.isBlank() && !candidates.contains(login)) {
+            candidates.add(login);
+        }
+        if (candidates.isEmpty()) {
+            candidates.add("github-user");
+        }
+        return candidates;
+    }
+
+    private Object lockFor(String username) {
+        return loadLocks[Math.floorMod(username.hashCode(), loadLocks.length)];
+    }
 
-        if (existingUser.isEmpty()) {
-            User newUser = new User();
-            newUser.setEmail(email);
-            newUser.setUsername(name); // Hoặc có thể set tên khác nếu cần
-            newUser.setPassword(""); // Vì OAuth không dùng mật khẩu
-            newUser.setRole(Role.valueOf("USER")); // Gán quyền mặc định
-            newUser.setIsPremium(false);
-            userRepository.save(newUser);
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
         }
+        return locks;
     }
 }
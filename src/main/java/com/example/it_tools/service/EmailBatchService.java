@@ -0,0 +1,201 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.EmailBatchResult;
+import com.example.it_tools.dto.EmailBatchSummary;
+import com.example.it_tools.util.BatchInput;
+import com.example.it_tools.util.BoundedParallel;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Bulk e-mail validation in two stages. Syntax is checked in chunks on the bulk executor; valid addresses
+ * are then grouped by domain, and each distinct domain is looked up once through {@link MxResolver}, with
+ * every address of that domain released as soon as its lookup completes. Lookups in flight and addresses
+ * waiting on them are capped per request; memory grows with the number of distinct domains, not addresses.
+ */
+@Service
+public class EmailBatchService {
+    private final EmailService emailService;
+    private final MxResolver mxResolver;
+    private final Executor bulkExecutor;
+    private final int chunkSize;
+    private final int chunksInFlight;
+    private final int maxPendingDomains;
+    private final int maxPendingRows;
+
+    public EmailBatchService(EmailService emailService, MxResolver mxResolver,
+                             @Qualifier("bulkExecutor") Executor bulkExecutor,
+                             @Value("${email.batch.chunk-size:1024}") int chunkSize,
+                             @Value("${email.batch.chunks-in-flight:0}") int chunksInFlight,
+                             @Value("${email.batch.max-pending-domains:64}") int maxPendingDomains,
+                             @Value("${email.batch.max-pending-rows:50000}") int maxPendingRows) {
+        this.emailService = emailService;
+        this.mxResolver = mxResolver;
+        this.bulkExecutor = bulkExecutor;
+        this.chunkSize = chunkSize;
+        this.chunksInFlight = chunksInFlight > 0 ? chunksInFlight : 2 * Runtime.getRuntime().availableProcessors();
+        this.maxPendingDomains = maxPendingDomains;
+        this.maxPendingRows = maxPendingRows;
+    }
+
+    /**
+     * One input row of a bulk request; {@code error} is set when the row itself could not be read.
+     */
+    public record BatchRow(long row, String email, String error) {
+    }
+
+    /**
+     * Streams one result per row to the sink, on the calling thread, in the order results become ready
+     * (invalid addresses immediately, valid ones when their domain is resolved), and returns the totals.
+     *
+     * @throws java.io.UncheckedIOException if reading the input fails; rows already read are delivered first
+     */
+    public EmailBatchSummary validate(Iterator<BatchRow> rows, Consumer<EmailBatchResult> sink) {
+        Window window = new Window(sink);
+        try {
+            BoundedParallel.forEachCompleted(BatchInput.chunked(rows, chunkSize), this::checkSyntax,
+                    bulkExecutor, chunksInFlight, results -> results.forEach(window::accept));
+        } finally {
+            window.finish();
+        }
+        return window.summary();
+    }
+
+    private List<EmailBatchResult> checkSyntax(List<BatchRow> chunk) {
+        List<EmailBatchResult> results = new ArrayList<>(chunk.size());
+        for (BatchRow row : chunk) {
+            if (row.error() != null) {
+                results.add(EmailBatchResult.failed(row.row(), row.email(), row.error()));
+            } else if (row.email() == null || row.email().isBlank()) {
+                results.add(EmailBatchResult.failed(row.row(), row.email(), "Email is required"));
+            } else {
+                results.add(EmailBatchResult.syntax(row.row(), emailService.parseSyntax(row.email().strip())));
+            }
+        }
+        return results;
+    }
+
+    static final String MX_FAILED = "MX lookup failed: ";
+
+    // hasMx null: không tra được (DNS không trả lời, hàng đợi resolver đầy), khác với "không có MX"
+    private record Resolved(String domain, Boolean hasMx, String error) {
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * Per-request grouping by domain. Everything except {@code ready} is touched only on the calling thread;
+     * lookups complete on resolver threads and hand their result over through {@code ready}.
+     */
+    private final class Window {
+        private final Consumer<EmailBatchResult> sink;
+        private final Map<String, Boolean> resolved = new HashMap<>();
+        private final Map<String, List<EmailBatchResult>> waiting = new HashMap<>();
+        private final BlockingQueue<Resolved> ready = new LinkedBlockingQueue<>();
+        private int waitingRows;
+        private long valid;
+        private long invalid;
+        private long withMx;
+        private long mxSkipped;
+        private long lookups;
+
+        Window(Consumer<EmailBatchResult> sink) {
+            this.sink = sink;
+        }
+
+        void accept(EmailBatchResult result) {
+            if (!result.valid()) {
+                invalid++;
+                sink.accept(result);
+                return;
+            }
+            valid++;
+            String domain = result.domain().toLowerCase(Locale.ROOT);
+            Boolean hasMx = resolved.get(domain);
+            if (hasMx != null) {
+                emit(result, hasMx);
+                return;
+            }
+            List<EmailBatchResult> rows = waiting.get(domain);
+            if (rows == null) {
+                // Giới hạn số domain đang tra cùng lúc cho mỗi request
+                while (waiting.size() >= maxPendingDomains) {
+                    awaitOne();
+                }
+                rows = new ArrayList<>();
+                waiting.put(domain, rows);
+                lookups++;
+                mxResolver.hasMx(domain).whenComplete((found, failure) -> ready.add(failure == null
+                        ? new Resolved(domain, found, null)
+                        : new Resolved(domain, null, MX_FAILED + rootCause(failure).getMessage())));
+            }
+            rows.add(result);
+            waitingRows++;
+            Resolved done;
+            while ((done = ready.poll()) != null) {
+                release(done);
+            }
+            while (waitingRows > maxPendingRows) {
+                awaitOne();
+            }
+        }
+
+        void finish() {
+            while (!waiting.isEmpty()) {
+                awaitOne();
+            }
+        }
+
+        EmailBatchSummary summary() {
+            return new EmailBatchSummary(valid + invalid, valid, invalid, withMx, valid - withMx - mxSkipped,
+                    mxSkipped, lookups);
+        }
+
+        // MxResolver tự giới hạn thời gian và mọi kết cục (kể cả lỗi) đều vào ready, nên take() luôn trả về
+        private void awaitOne() {
+            try {
+                release(ready.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for MX lookups", e);
+            }
+        }
+
+        private void release(Resolved done) {
+            List<EmailBatchResult> rows = waiting.remove(done.domain());
+            waitingRows -= rows.size();
+            if (done.hasMx() == null) {
+                // Không ghi nhớ: dòng sau cùng domain sẽ tra lại
+                mxSkipped += rows.size();
+                rows.forEach(row -> sink.accept(row.withError(done.error())));
+                return;
+            }
+            resolved.put(done.domain(), done.hasMx());
+            for (EmailBatchResult row : rows) {
+                emit(row, done.hasMx());
+            }
+        }
+
+        private void emit(EmailBatchResult result, boolean hasMx) {
+            if (hasMx) {
+                withMx++;
+            }
+            sink.accept(result.withMx(hasMx));
+        }
+    }
+}
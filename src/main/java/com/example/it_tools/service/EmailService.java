@@ -4,11 +4,7 @@ import com.example.it_tools.dto.EmailRequest;
 import com.example.it_tools.dto.EmailResponse;
 import org.springframework.stereotype.Service;
 
-import javax.naming.directory.Attributes;
-import javax.naming.directory.DirContext;
-import javax.naming.directory.InitialDirContext;
-
-import java.util.Hashtable;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 @Service
@@ -16,37 +12,41 @@ public class EmailService {
     private static final Pattern EMAIL_REGEX =
             Pattern.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
 
-    public EmailResponse parseEmail(EmailRequest request) {
+    private final MxResolver mxResolver;
+
+    public EmailService(MxResolver mxResolver) {
+        this.mxResolver = mxResolver;
+    }
+
+    /**
+     * Completes once the MX lookup (cached, shared with concurrent callers) is done; the calling thread is not blocked.
+     */
+    public CompletableFuture<EmailResponse> parseEmail(EmailRequest request) {
+        EmailResponse response = parseSyntax(request.getEmail());
+        if (!response.isValid()) {
+            return CompletableFuture.completedFuture(response);
+        }
+        return mxResolver.hasMx(response.getDomain()).thenApply(hasMX -> {
+            response.setHasMXRecord(hasMX);
+            return response;
+        });
+    }
+
+    /**
+     * Syntax check and split into username / domain, without the MX lookup.
+     */
+    public EmailResponse parseSyntax(String email) {
         EmailResponse response = new EmailResponse();
-        response.setEmail(request.getEmail());
+        response.setEmail(email);
 
-        boolean valid = EMAIL_REGEX.matcher(request.getEmail()).matches();
+        boolean valid = email != null && EMAIL_REGEX.matcher(email).matches();
         response.setValid(valid);
 
         if (valid) {
-            String[] parts = request.getEmail().split("@");
-            String username = parts[0];
-            String domain = parts[1];
-
-            response.setUsername(username);
-            response.setDomain(domain);
-
-            boolean hasMX = hasMXRecord(domain);
-            response.setHasMXRecord(hasMX);
+            String[] parts = email.split("@");
+            response.setUsername(parts[0]);
+            response.setDomain(parts[1]);
         }
-
         return response;
     }
-
-    private boolean hasMXRecord(String domain) {
-        try {
-            Hashtable<String, String> env = new Hashtable<>();
-            env.put("java.naming.factory.initial", "com.sun.jndi.dns.DnsContextFactory");
-            DirContext ctx = new InitialDirContext(env);
-            Attributes attrs = ctx.getAttributes(domain, new String[]{"MX"});
-            return attrs != null && attrs.get("MX") != null;
-        } catch (Exception e) {
-            return false;
-        }
-    }
 }
@@ -4,49 +4,93 @@ import com.example.it_tools.model.User;
 import com.example.it_tools.model.UserToolFavorite;
 import com.example.it_tools.repository.UserRepository;
 import com.example.it_tools.repository.UserToolFavoriteRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.it_tools.repository.UserToolFavoriteRepositoryCustom.FavoriteBatchCounts;
+import com.example.it_tools.util.LruCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
-@RequiredArgsConstructor
 public class FavoriteService {
+    private static final int LOCK_STRIPES = 64;
+    // Thứ tự thêm vào, ổn định giữa các lần đọc (natural order của Mongo thì không)
+    private static final Comparator<UserToolFavorite> ADDED_ORDER = Comparator
+            .comparing(UserToolFavorite::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(UserToolFavorite::getToolName);
 
     private final UserToolFavoriteRepository favoriteRepository;
     private final UserRepository userRepository;
-    
+
+    // userId -> tên tool yêu thích theo thứ tự thêm (bất biến); TTL giới hạn độ lệch khi collection bị sửa từ bên ngoài
+    private final LruCache<String, List<String>> favoritesCache;
+    // Ghi cho cùng một user được tuần tự hóa, các user khác nhau không chặn nhau
+    private final Object[] userLocks = newLocks();
+
+    public FavoriteService(UserToolFavoriteRepository favoriteRepository, UserRepository userRepository,
+                           @Value("${favorites.cache.max-size:10000}") int cacheMaxSize,
+                           @Value("${favorites.cache.ttl-seconds:600}") long cacheTtlSeconds) {
+        this.favoriteRepository = favoriteRepository;
+        this.userRepository = userRepository;
+        this.favoritesCache = new LruCache<>(cacheMaxSize, Duration.ofSeconds(cacheTtlSeconds));
+    }
+
     /**
-     * Get all favorite tool names for a user
+     * Get all favorite tool names for a user, oldest first
      */
     public List<String> getUserFavorites(String userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-                
-        return favoriteRepository.findByUser(user)
-                .stream()
-                .map(UserToolFavorite::getToolName)
-                .collect(Collectors.toList());
+        List<String> cached = favoritesCache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (lockFor(userId)) {
+            cached = favoritesCache.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            List<String> favorites = favoriteRepository.findByUser(user)
+                    .stream()
+                    .sorted(ADDED_ORDER)
+                    .map(UserToolFavorite::getToolName)
+                    .toList();
+            favoritesCache.put(userId, favorites);
+            return favorites;
+        }
     }
     
     /**
      * Add a tool to user favorites
      */
     public UserToolFavorite addFavorite(String userId, String toolName) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        // Check if already favorited
-        if (favoriteRepository.existsByUserAndToolName(user, toolName)) {
-            return favoriteRepository.findByUserAndToolName(user, toolName)
-                    .orElseThrow(() -> new RuntimeException("Favorite not found"));
+        synchronized (lockFor(userId)) {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            // Check if already favorited
+            Optional<UserToolFavorite> existing = favoriteRepository.findByUserAndToolName(user, toolName);
+            if (existing.isPresent()) {
+                // Cache có thể đang thiếu tool này (ghi từ instance khác): sửa luôn
+                updateCached(userId, toolName, true);
+                return existing.get();
+            }
+
+            // Create new favorite
+            UserToolFavorite favorite = new UserToolFavorite(user, toolName);
+            UserToolFavorite saved = favoriteRepository.save(favorite);
+            updateCached(userId, toolName, true);
+            return saved;
         }
-        
-        // Create new favorite
-        UserToolFavorite favorite = new UserToolFavorite(user, toolName);
-        return favoriteRepository.save(favorite);
     }
     
     /**
@@ -54,19 +98,65 @@ public class FavoriteService {
      */
     @Transactional
     public void removeFavorite(String userId, String toolName) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-                
-        favoriteRepository.deleteByUserAndToolName(user, toolName);
+        synchronized (lockFor(userId)) {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            favoriteRepository.deleteByUserAndToolName(user, toolName);
+            updateCached(userId, toolName, false);
+        }
     }
     
+    /**
+     * Apply many adds and removes in one idempotent bulk write (upserts + deletes on user_tool_idx).
+     * The user id is trusted as coming from the authenticated principal, so no user lookup is made.
+     */
+    public FavoriteBatchCounts applyBatch(String userId, Collection<String> add, Collection<String> remove) {
+        synchronized (lockFor(userId)) {
+            FavoriteBatchCounts counts = favoriteRepository.applyBatch(userId, add, remove);
+
+            List<String> cached = favoritesCache.get(userId);
+            if (cached != null) {
+                Set<String> updated = new LinkedHashSet<>(cached);
+                updated.addAll(add);
+                updated.removeAll(remove);
+                favoritesCache.put(userId, List.copyOf(updated));
+            }
+            return counts;
+        }
+    }
+
     /**
      * Check if a tool is in user favorites
      */
     public boolean isFavorite(String userId, String toolName) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-                
-        return favoriteRepository.existsByUserAndToolName(user, toolName);
+        return getUserFavorites(userId).contains(toolName);
+    }
+
+    // Write-through: chỉ sửa entry đang có trong cache, nếu chưa có thì lần đọc sau sẽ tải từ Mongo
+    private void updateCached(String userId, String toolName, boolean favorite) {
+        List<String> cached = favoritesCache.get(userId);
+        if (cached == null || cached.contains(toolName) == favorite) {
+            return;
+        }
+        List<String> updated = new ArrayList<>(cached);
+        if (favorite) {
+            updated.add(toolName);
+        } else {
+            updated.remove(toolName);
+        }
+        favoritesCache.put(userId, List.copyOf(updated));
+    }
+
+    private Object lockFor(String userId) {
+        return userLocks[Math.floorMod(userId.hashCode(), userLocks.length)];
+    }
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.IbanBatchSummary;
+import com.example.it_tools.dto.IbanLineResult;
+import com.example.it_tools.dto.IbanParseResult;
+import com.example.it_tools.util.BoundedParallel;
+import com.example.it_tools.util.ChannelLineReader;
+import com.example.it_tools.util.ChannelLineReader.Line;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Validates IBAN files (plain text, one IBAN per line, or CSV with the IBAN in a given column).
+ * The file is read through a fixed-size channel buffer and validated in chunks of lines on the bulk
+ * executor with a bounded number of chunks in flight, so memory stays flat whatever the file size.
+ */
+@Service
+public class IbanBatchService {
+    static final int READ_BUFFER_BYTES = 64 * 1024;
+    static final int MAX_LINE_BYTES = 8 * 1024;
+    static final String UNKNOWN_COUNTRY = "??";
+
+    private final IbanParserService ibanParserService;
+    private final Executor bulkExecutor;
+    private final int chunkSize;
+    private final int chunksInFlight;
+
+    public IbanBatchService(IbanParserService ibanParserService,
+                            @Qualifier("bulkExecutor") Executor bulkExecutor,
+                            @Value("${iban.batch.chunk-size:512}") int chunkSize,
+                            @Value("${iban.batch.chunks-in-flight:0}") int chunksInFlight) {
+        this.ibanParserService = ibanParserService;
+        this.bulkExecutor = bulkExecutor;
+        this.chunkSize = chunkSize;
+        this.chunksInFlight = chunksInFlight > 0 ? chunksInFlight : 2 * Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Streams one result per non-blank line to the sink (on the calling thread, chunk by chunk in completion
+     * order, file order within a chunk) and returns the totals. A first line whose cell mentions "iban" and
+     * does not look like one is treated as a CSV header and skipped.
+     *
+     * @param column 0-based CSV column holding the IBAN; the delimiter (';', ',' or tab) is taken from the first line
+     * @throws java.io.UncheckedIOException if reading the channel fails; results of earlier chunks are delivered first
+     */
+    public IbanBatchSummary validate(ReadableByteChannel channel, int column, Consumer<IbanLineResult> sink) {
+        Tally tally = new Tally();
+        Iterator<Chunk> chunks = new Chunks(new ChannelLineReader(channel, READ_BUFFER_BYTES, MAX_LINE_BYTES), column);
+        BoundedParallel.forEachCompleted(chunks, chunk -> validateChunk(chunk, column), bulkExecutor, chunksInFlight,
+                results -> {
+                    for (IbanLineResult result : results) {
+                        tally.add(result);
+                        sink.accept(result);
+                    }
+                });
+        return tally.summary();
+    }
+
+    private List<IbanLineResult> validateChunk(Chunk chunk, int column) {
+        List<IbanLineResult> results = new ArrayList<>(chunk.lines().size());
+        for (Line line : chunk.lines()) {
+            if (line.truncated()) {
+                results.add(new IbanLineResult(line.number(), null,
+                        IbanParseResult.invalid("LINE_TOO_LONG", "Line exceeds " + MAX_LINE_BYTES + " bytes")));
+                continue;
+            }
+            String cell = cell(line.text(), chunk.delimiter(), column);
+            IbanParseResult result = cell == null
+                    ? IbanParseResult.invalid("MISSING_COLUMN", "Line has no column " + column)
+                    : ibanParserService.parse(cell);
+            results.add(new IbanLineResult(line.number(), cell, result));
+        }
+        return results;
+    }
+
+    // 1 = không có ký tự phân cách (mỗi dòng là một IBAN)
+    static char delimiterOf(String line) {
+        for (char candidate : new char[]{';', ',', '\t'}) {
+            if (line.indexOf(candidate) >= 0) {
+                return candidate;
+            }
+        }
+        return 1;
+    }
+
+    static String cell(String line, char delimiter, int column) {
+        int start = 0;
+        for (int i = 0; i < column; i++) {
+            int next = line.indexOf(delimiter, start);
+            if (next < 0) {
+                return null;
+            }
+            start = next + 1;
+        }
+        int end = line.indexOf(delimiter, start);
+        String value = line.substring(start, end < 0 ? line.length() : end).strip();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).strip();
+        }
+        return value;
+    }
+
+    static boolean isHeader(String line, char delimiter, int column) {
+        String cell = cell(line, delimiter, column);
+        if (cell == null || !cell.toLowerCase(Locale.ROOT).contains("iban")) {
+            return false;
+        }
+        String compact = IbanParserService.normalize(cell);
+        return !(compact.length() >= 4 && Character.isLetter(compact.charAt(0)) && Character.isLetter(compact.charAt(1))
+                && Character.isDigit(compact.charAt(2)) && Character.isDigit(compact.charAt(3)));
+    }
+
+    // Country prefix of an invalid line, when it starts with two letters
+    static String countryPrefix(String input) {
+        String compact = IbanParserService.normalize(input);
+        if (compact == null || compact.length() < 2) {
+            return UNKNOWN_COUNTRY;
+        }
+        char first = compact.charAt(0);
+        char second = compact.charAt(1);
+        return first >= 'A' && first <= 'Z' && second >= 'A' && second <= 'Z' ? compact.substring(0, 2) : UNKNOWN_COUNTRY;
+    }
+
+    private record Chunk(List<Line> lines, char delimiter) {
+    }
+
+    /**
+     * Groups non-blank lines into chunks on the reading thread. The delimiter is detected once, from the
+     * first non-blank line, which is dropped when it is a CSV header.
+     */
+    private final class Chunks implements Iterator<Chunk> {
+        private final ChannelLineReader lines;
+        private final int column;
+        private char delimiter;
+
+        Chunks(ChannelLineReader lines, int column) {
+            this.lines = lines;
+            this.column = column;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return lines.hasNext();
+        }
+
+        @Override
+        public Chunk next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && lines.hasNext()) {
+                Line line = lines.next();
+                if (line.text().isBlank() && !line.truncated()) {
+                    continue;
+                }
+                if (delimiter == 0 && !line.truncated()) {
+                    delimiter = delimiterOf(line.text());
+                    if (isHeader(line.text(), delimiter, column)) {
+                        continue;
+                    }
+                }
+                chunk.add(line);
+            }
+            // Chunk có thể rỗng nếu phần còn lại toàn dòng trống
+            return new Chunk(chunk, delimiter == 0 ? 1 : delimiter);
+        }
+    }
+
+    // Chỉ cập nhật trên luồng gọi (sink của BoundedParallel), không cần đồng bộ
+    private static final class Tally {
+        private long valid;
+        private long invalid;
+        private final Map<String, long[]> byCountry = new TreeMap<>();
+        private final Map<String, Long> byErrorType = new TreeMap<>();
+
+        void add(IbanLineResult line) {
+            IbanParseResult result = line.result();
+            if (result.isValid()) {
+                valid++;
+                byCountry.computeIfAbsent(result.countryCode(), k -> new long[2])[0]++;
+            } else {
+                invalid++;
+                byCountry.computeIfAbsent(countryPrefix(line.input()), k -> new long[2])[1]++;
+                byErrorType.merge(result.errorType(), 1L, Long::sum);
+            }
+        }
+
+        IbanBatchSummary summary() {
+            Map<String, IbanBatchSummary.CountryCount> countries = new TreeMap<>();
+            byCountry.forEach((country, counts) -> countries.put(country, new IbanBatchSummary.CountryCount(counts[0], counts[1])));
+            return new IbanBatchSummary(valid + invalid, valid, invalid, countries, byErrorType);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.IbanParseResult;
+import org.iban4j.Iban4jException;
+import org.iban4j.IbanFormatException;
+import org.iban4j.IbanUtil;
+import org.iban4j.InvalidCheckDigitException;
+import org.iban4j.UnsupportedCountryException;
+import org.springframework.stereotype.Service;
+
+/**
+ * IBAN validation and formatting. The input is normalized and grouped on char arrays in one pass each,
+ * and validated exactly once with {@link IbanUtil#validate(String)}; country code and BBAN are then plain
+ * substrings of the validated value (which is what iban4j's {@code Iban} returns as well).
+ */
+@Service
+public class IbanParserService {
+    private static final int GROUP_SIZE = 4;
+
+    public IbanParseResult parse(String input) {
+        String compact = normalize(input);
+        try {
+            IbanUtil.validate(compact);
+        } catch (Iban4jException e) {
+            return IbanParseResult.invalid(errorType(e), "Invalid IBAN: " + e.getMessage());
+        }
+        return IbanParseResult.valid(compact.substring(0, 2), compact.substring(4), group(compact), compact);
+    }
+
+    /**
+     * Stable name of the rule an IBAN broke, for grouping errors: the iban4j format violation
+     * (e.g. "BBAN_LENGTH", "COUNTRY_CODE_TWO_LETTERS"), "INVALID_CHECK_DIGIT" or "UNSUPPORTED_COUNTRY".
+     */
+    static String errorType(Iban4jException e) {
+        if (e instanceof IbanFormatException format) {
+            return format.getFormatViolation() != null ? format.getFormatViolation().name() : "INVALID_FORMAT";
+        }
+        if (e instanceof InvalidCheckDigitException) {
+            return "INVALID_CHECK_DIGIT";
+        }
+        if (e instanceof UnsupportedCountryException) {
+            return "UNSUPPORTED_COUNTRY";
+        }
+        return "INVALID_IBAN";
+    }
+
+    /**
+     * Removes whitespace (the characters of regex {@code \s}) and upper-cases, in a single pass.
+     * Returns the input itself when it is already compact upper case.
+     */
+    static String normalize(String input) {
+        if (input == null) {
+            return null;
+        }
+        int length = input.length();
+        char[] out = null;
+        int written = 0;
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            boolean whitespace = c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+            char upper = c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A'))
+                    : c < 0x80 ? c : Character.toUpperCase(c);
+            if (out == null) {
+                if (!whitespace && upper == c) {
+                    continue;
+                }
+                // Ký tự đầu tiên cần đổi: chép phần đã duyệt rồi mới bắt đầu ghi
+                out = new char[length];
+                input.getChars(0, i, out, 0);
+                written = i;
+            }
+            if (!whitespace) {
+                out[written++] = upper;
+            }
+        }
+        return out == null ? input : new String(out, 0, written);
+    }
+
+    /**
+     * Groups of four separated by single spaces, e.g. "DE89 3704 0044 0532 0130 00".
+     */
+    static String group(String compact) {
+        int length = compact.length();
+        if (length <= GROUP_SIZE) {
+            return compact;
+        }
+        char[] out = new char[length + (length - 1) / GROUP_SIZE];
+        int written = 0;
+        for (int i = 0; i < length; i++) {
+            if (i > 0 && i % GROUP_SIZE == 0) {
+                out[written++] = ' ';
+            }
+            out[written++] = compact.charAt(i);
+        }
+        return new String(out);
+    }
+}
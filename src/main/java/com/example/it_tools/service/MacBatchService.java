@@ -0,0 +1,108 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.MacBatchSummary;
+import com.example.it_tools.dto.MacLookupResult;
+import com.example.it_tools.dto.MacVendor;
+import com.example.it_tools.util.ChannelLineReader;
+import com.example.it_tools.util.ChannelLineReader.Line;
+import com.example.it_tools.util.MacAddress;
+import org.springframework.stereotype.Service;
+
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Resolves every MAC address found in a text or CSV upload (ARP tables, DHCP leases, inventory exports)
+ * against the offline OUI index in one sequential pass over a fixed-size channel buffer. Lookups are
+ * in-process only; the remote fallback of {@link MacVendorService#lookup} is not used for bulk input.
+ */
+@Service
+public class MacBatchService {
+    static final int READ_BUFFER_BYTES = 64 * 1024;
+    static final int MAX_LINE_BYTES = 8 * 1024;
+
+    private final MacVendorService macVendorService;
+
+    public MacBatchService(MacVendorService macVendorService) {
+        this.macVendorService = macVendorService;
+    }
+
+    /**
+     * Streams one result per address to the sink, in input order, and returns the totals.
+     *
+     * @throws java.io.UncheckedIOException if reading the channel fails; earlier results are already delivered
+     */
+    public MacBatchSummary resolve(ReadableByteChannel channel, Consumer<MacLookupResult> sink) {
+        ChannelLineReader lines = new ChannelLineReader(channel, READ_BUFFER_BYTES, MAX_LINE_BYTES);
+        Map<String, long[]> byVendor = new HashMap<>();
+        List<String> tokens = new ArrayList<>();
+        long lineCount = 0;
+        long macs = 0;
+        long found = 0;
+        while (lines.hasNext()) {
+            Line line = lines.next();
+            lineCount++;
+            tokens.clear();
+            candidates(line.text(), tokens);
+            for (String token : tokens) {
+                MacAddress mac = MacAddress.parse(token);
+                if (mac == null || mac.bits() != MacAddress.BITS) {
+                    continue;
+                }
+                macs++;
+                MacVendor vendor = macVendorService.lookupOffline(mac);
+                if (vendor != null) {
+                    found++;
+                    byVendor.computeIfAbsent(vendor.company(), k -> new long[1])[0]++;
+                }
+                sink.accept(new MacLookupResult(line.number(), token, mac.toString(), vendor != null, vendor));
+            }
+        }
+        return new MacBatchSummary(lineCount, macs, found, macs - found, sortedByCount(byVendor));
+    }
+
+    /**
+     * Tokens of a line that have the length of a full MAC in one of the usual notations: 17 chars
+     * ("20:37:06:12:34:56", "20-37-06-12-34-56"), 14 ("2037.0612.3456") or 12 (bare hex). Tokens are
+     * separated by whitespace, CSV/ARP punctuation and quotes.
+     */
+    static void candidates(String line, List<String> out) {
+        int start = -1;
+        for (int i = 0; i <= line.length(); i++) {
+            boolean separator = i == line.length() || isSeparator(line.charAt(i));
+            if (!separator) {
+                if (start < 0) {
+                    start = i;
+                }
+                continue;
+            }
+            if (start >= 0) {
+                int length = i - start;
+                if (length == 17 || length == 14 || length == 12) {
+                    out.add(line.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static boolean isSeparator(char c) {
+        return switch (c) {
+            case ' ', '\t', ',', ';', '|', '"', '\'', '(', ')', '[', ']', '{', '}', '=', '<', '>' -> true;
+            default -> false;
+        };
+    }
+
+    private static Map<String, Long> sortedByCount(Map<String, long[]> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()[0]));
+        return sorted;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.MacVendor;
+import com.example.it_tools.util.MacAddress;
+import com.example.it_tools.util.RefreshingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * MAC vendor lookups from the offline IEEE index ({@link OuiIndex}), with macvendorlookup.com as an
+ * optional fallback for addresses the index does not know (or when no registry file is installed).
+ * Reloads build a new index off to the side and publish it with one volatile write, so lookups never wait.
+ * Remote answers (including "unknown") are cached per 36-bit prefix, the smallest IEEE assignment, and
+ * concurrent lookups of one prefix share a single remote call.
+ */
+@Service
+public class MacVendorService {
+    private static final Logger logger = LoggerFactory.getLogger(MacVendorService.class);
+    private static final String CACHE_NAME = "mac-vendor-remote";
+    private static final String REMOTE_URL = "https://www.macvendorlookup.com/api/v2/";
+
+    private final RestTemplate restTemplate;
+    private final List<Path> files;
+    private final boolean remoteFallback;
+    private final RefreshingCache<Long, List<MacVendor>> remoteCache;
+    private volatile OuiIndex index = OuiIndex.empty();
+    private volatile String lastError;
+
+    public MacVendorService(@Qualifier("macVendorRestTemplate") RestTemplate restTemplate,
+                            @Value("${mac.oui.files:}") String files,
+                            @Value("${mac.vendor.remote-fallback:true}") boolean remoteFallback,
+                            @Value("${mac.vendor.remote-cache.max-size:10000}") int cacheMaxSize,
+                            @Value("${mac.vendor.remote-cache.ttl-seconds:86400}") long cacheTtlSeconds,
+                            @Value("${mac.vendor.remote-cache.stale-seconds:604800}") long cacheStaleSeconds,
+                            @Qualifier("outboundRefreshExecutor") Executor refreshExecutor,
+                            MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.files = Arrays.stream(files.split(","))
+                .map(String::strip)
+                .filter(file -> !file.isEmpty())
+                .map(Path::of)
+                .toList();
+        this.remoteFallback = remoteFallback;
+        this.remoteCache = new RefreshingCache<>(cacheMaxSize, Duration.ofSeconds(cacheTtlSeconds),
+                Duration.ofSeconds(cacheStaleSeconds), refreshExecutor);
+        remoteCache.registerMetrics(meterRegistry, CACHE_NAME);
+    }
+
+    /**
+     * Rebuilds the index from the registry files that exist; on failure the previous index stays in use.
+     */
+    @PostConstruct
+    public synchronized void reload() {
+        List<Path> existing = new ArrayList<>();
+        for (Path file : files) {
+            if (Files.isReadable(file)) {
+                existing.add(file);
+            } else {
+                logger.info("OUI registry file {} not found, skipping", file);
+            }
+        }
+        try {
+            OuiIndex loaded = OuiIndex.load(existing);
+            index = loaded;
+            lastError = null;
+            logger.info("Loaded {} OUI blocks {} from {}", loaded.size(), loaded.sizes(), existing);
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            lastError = e.getMessage();
+            logger.warn("Could not load OUI registry, keeping {} blocks: {}", index.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Vendors for the address in the shape of the remote API: one element, or none when unknown.
+     *
+     * @throws org.springframework.web.client.RestClientException if the remote fallback fails
+     */
+    public List<MacVendor> lookup(MacAddress mac) {
+        MacVendor vendor = index.lookup(mac);
+        if (vendor != null) {
+            return List.of(vendor);
+        }
+        if (!remoteFallback) {
+            return List.of();
+        }
+        // Mọi địa chỉ cùng 36 bit đầu thuộc cùng một block nên dùng chung kết quả
+        return remoteCache.get(mac.value() >>> (MacAddress.BITS - 36), () -> {
+            MacVendor[] remote = restTemplate.getForObject(REMOTE_URL + mac, MacVendor[].class);
+            return remote == null ? List.of() : List.of(remote);
+        });
+    }
+
+    /**
+     * Offline lookup only, for bulk use.
+     */
+    public MacVendor lookupOffline(MacAddress mac) {
+        return index.lookup(mac);
+    }
+
+    public OuiIndex index() {
+        return index;
+    }
+
+    public String lastError() {
+        return lastError;
+    }
+
+    public boolean isRemoteFallback() {
+        return remoteFallback;
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.util.DnsMessage;
+import com.example.it_tools.util.DnsMessage.MxAnswer;
+import com.example.it_tools.util.LruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.naming.NamingException;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.IDN;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous MX lookups over UDP with explicit timeouts, on a small dedicated pool with a bounded queue.
+ * Concurrent lookups of the same domain share one query. Answers are cached for their record TTL
+ * (clamped to [min-ttl, max-ttl], and not at all when that is 0); NXDOMAIN / no-MX answers for the SOA
+ * negative TTL (RFC 2308).
+ * Lookups where every server failed or timed out are not answers: they fail with {@link LookupFailedException},
+ * and the failure is remembered separately for failure-ttl so a dead domain is not retried per call.
+ */
+@Service
+public class MxResolver {
+    private static final Logger logger = LoggerFactory.getLogger(MxResolver.class);
+    static final String CACHE_NAME = "mx";
+    private static final int DNS_PORT = 53;
+    private static final int MAX_UDP_RESPONSE = 4096;
+
+    private final List<InetSocketAddress> servers;
+    private final int timeoutMillis;
+    private final int attempts;
+    private final Duration minTtl;
+    private final Duration maxTtl;
+    private final Duration negativeTtl;
+    private final Duration failureTtl;
+    private final LruCache<String, Boolean> cache;
+    // Domain mà lần tra gần nhất không server nào trả lời; tách khỏi cache để không bị đọc thành "không có MX"
+    private final LruCache<String, LookupFailedException> failures;
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+
+    public MxResolver(@Value("${email.mx.dns-servers:}") String dnsServers,
+                      @Value("${email.mx.timeout-ms:2000}") int timeoutMillis,
+                      @Value("${email.mx.attempts:2}") int attempts,
+                      @Value("${email.mx.concurrency:16}") int concurrency,
+                      @Value("${email.mx.queue-capacity:1000}") int queueCapacity,
+                      @Value("${email.mx.cache.max-size:10000}") int cacheSize,
+                      @Value("${email.mx.cache.min-ttl-seconds:30}") long minTtlSeconds,
+                      @Value("${email.mx.cache.max-ttl-seconds:3600}") long maxTtlSeconds,
+                      @Value("${email.mx.cache.negative-ttl-seconds:300}") long negativeTtlSeconds,
+                      @Value("${email.mx.cache.failure-ttl-seconds:30}") long failureTtlSeconds,
+                      MeterRegistry meterRegistry) {
+        this.servers = dnsServers.isBlank() ? systemServers() : parseServers(dnsServers);
+        this.timeoutMillis = timeoutMillis;
+        this.attempts = Math.max(1, attempts);
+        this.minTtl = Duration.ofSeconds(minTtlSeconds);
+        this.maxTtl = Duration.ofSeconds(maxTtlSeconds);
+        this.negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+        this.failureTtl = Duration.ofSeconds(failureTtlSeconds);
+        this.cache = new LruCache<>(cacheSize);
+        this.failures = new LruCache<>(cacheSize);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mx-resolver-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        FunctionCounter.builder("cache.gets", cache, LruCache::hits)
+                .tag("cache", CACHE_NAME).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, LruCache::misses)
+                .tag("cache", CACHE_NAME).tag("result", "miss").register(meterRegistry);
+        Gauge.builder("cache.size", cache, LruCache::size)
+                .tag("cache", CACHE_NAME).register(meterRegistry);
+        logger.info("MX resolver using DNS servers {}", servers);
+    }
+
+    /**
+     * Completes with true when the domain has at least one MX record, false when DNS says it has none
+     * (invalid names included). When no answer could be obtained, because every server failed or timed out
+     * or the lookup queue is full, the future completes exceptionally with {@link LookupFailedException}
+     * rather than claiming "no MX".
+     */
+    public CompletableFuture<Boolean> hasMx(String domain) {
+        String name = normalize(domain);
+        if (name == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        Boolean cached = cache.get(name);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        LookupFailedException failed = failures.get(name);
+        if (failed != null) {
+            return CompletableFuture.failedFuture(failed);
+        }
+        CompletableFuture<Boolean> lookup = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inFlight.putIfAbsent(name, lookup);
+        if (existing != null) {
+            return existing.copy();
+        }
+        try {
+            executor.execute(() -> {
+                Boolean result = null;
+                RuntimeException failure = null;
+                try {
+                    result = resolve(name);
+                } catch (LookupFailedException e) {
+                    failure = e;
+                } catch (RuntimeException e) {
+                    logger.warn("MX lookup for {} failed", name, e);
+                    failure = new LookupFailedException("MX lookup for " + name + " failed", e);
+                } finally {
+                    // Ghi cache trước khi gỡ khỏi inFlight để lượt gọi sau thấy kết quả
+                    inFlight.remove(name, lookup);
+                    if (failure == null) {
+                        lookup.complete(result);
+                    } else {
+                        lookup.completeExceptionally(failure);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(name, lookup);
+            logger.warn("MX resolver queue full, skipping lookup for {}", name);
+            lookup.completeExceptionally(new LookupFailedException("MX resolver busy", e));
+        }
+        return lookup.copy();
+    }
+
+    private boolean resolve(String domain) {
+        MxAnswer answer = query(domain);
+        if (answer == null) {
+            LookupFailedException failure = new LookupFailedException("No DNS server answered for " + domain, null);
+            failures.put(domain, failure, failureTtl);
+            throw failure;
+        }
+        failures.remove(domain);
+        if (answer.hasMx()) {
+            cache.put(domain, true, clamp(Duration.ofSeconds(answer.ttlSeconds())));
+            return true;
+        }
+        Duration ttl = answer.negativeTtlSeconds() >= 0 ? Duration.ofSeconds(answer.negativeTtlSeconds()) : negativeTtl;
+        cache.put(domain, false, clamp(ttl));
+        return false;
+    }
+
+    // null khi mọi server đều lỗi, hết thời gian hoặc trả về SERVFAIL/REFUSED
+    private MxAnswer query(String domain) {
+        byte[] request;
+        try {
+            request = DnsMessage.mxQuery(0, domain);
+        } catch (IllegalArgumentException e) {
+            return new MxAnswer(0, DnsMessage.RCODE_NXDOMAIN, false, 0, -1, -1);
+        }
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            for (InetSocketAddress server : servers) {
+                int id = ThreadLocalRandom.current().nextInt(1 << 16);
+                request[0] = (byte) (id >>> 8);
+                request[1] = (byte) id;
+                try {
+                    MxAnswer answer = exchange(server, request, id);
+                    if (answer != null && isConclusive(answer)) {
+                        return answer;
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    logger.debug("MX query for {} to {} failed: {}", domain, server, e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    private MxAnswer exchange(InetSocketAddress server, byte[] request, int id) throws IOException {
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.connect(server);
+            socket.setSoTimeout(timeoutMillis);
+            socket.send(new DatagramPacket(request, request.length));
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            byte[] buffer = new byte[MAX_UDP_RESPONSE];
+            while (true) {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                try {
+                    socket.receive(packet);
+                } catch (SocketTimeoutException e) {
+                    return null;
+                }
+                MxAnswer answer = DnsMessage.parseMxResponse(buffer, packet.getLength());
+                if (answer.id() == id) {
+                    return answer;
+                }
+                // Gói trả lời lạc (id khác): bỏ qua, chờ tiếp trong thời gian còn lại
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return null;
+                }
+                socket.setSoTimeout((int) remaining);
+            }
+        }
+    }
+
+    // NOERROR/NXDOMAIN là câu trả lời dứt khoát; bản bị cắt (TC) mà không có MX thì chưa kết luận được
+    private static boolean isConclusive(MxAnswer answer) {
+        if (answer.rcode() != DnsMessage.RCODE_NOERROR && answer.rcode() != DnsMessage.RCODE_NXDOMAIN) {
+            return false;
+        }
+        return answer.hasMx() || !answer.truncated();
+    }
+
+    private Duration clamp(Duration ttl) {
+        return ttl.compareTo(minTtl) < 0 ? minTtl : ttl.compareTo(maxTtl) > 0 ? maxTtl : ttl;
+    }
+
+    static String normalize(String domain) {
+        if (domain == null) {
+            return null;
+        }
+        String name = domain.strip();
+        if (name.endsWith(".")) {
+            name = name.substring(0, name.length() - 1);
+        }
+        try {
+            name = IDN.toASCII(name).toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return name.isEmpty() || name.length() > 253 ? null : name;
+    }
+
+    // "host[:port]" phân tách bằng dấu phẩy; IPv6 viết trong ngoặc vuông
+    static List<InetSocketAddress> parseServers(String value) {
+        List<InetSocketAddress> result = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            String server = entry.strip();
+            if (!server.isEmpty()) {
+                URI uri = URI.create("dns://" + server);
+                result.add(new InetSocketAddress(uri.getHost(), uri.getPort() > 0 ? uri.getPort() : DNS_PORT));
+            }
+        }
+        return result;
+    }
+
+    // Lấy nameserver của hệ điều hành qua JNDI (resolv.conf hoặc cấu hình Windows)
+    private static List<InetSocketAddress> systemServers() {
+        Hashtable<String, String> env = new Hashtable<>();
+        env.put("java.naming.factory.initial", "com.sun.jndi.dns.DnsContextFactory");
+        try {
+            DirContext ctx = new InitialDirContext(env);
+            Object url = ctx.getEnvironment().get("java.naming.provider.url");
+            ctx.close();
+            if (url != null) {
+                List<InetSocketAddress> result = parseServers(url.toString().replace("dns://", "").replace(' ', ','));
+                if (!result.isEmpty()) {
+                    return result;
+                }
+            }
+        } catch (NamingException | IllegalArgumentException e) {
+            logger.warn("Could not read system DNS servers: {}", e.getMessage());
+        }
+        return List.of(new InetSocketAddress("127.0.0.1", DNS_PORT));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The lookup produced no answer (servers failed or timed out, or the resolver was too busy to ask),
+     * as opposed to an answer saying the domain has no MX record.
+     */
+    public static class LookupFailedException extends RuntimeException {
+        public LookupFailedException(String message, Throwable cause) {
+            super(message, cause, false, false);
+        }
+    }
+}
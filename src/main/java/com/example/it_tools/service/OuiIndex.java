@@ -0,0 +1,270 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.MacVendor;
+import com.example.it_tools.util.MacAddress;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable in-memory copy of the IEEE registries (MA-L, MA-M, MA-S / IAB). Each prefix length has a sorted
+ * {@code long[]} of prefixes and a parallel array of vendors, so a lookup is at most three binary searches,
+ * most specific block first. Built once per load and swapped as a whole by {@link MacVendorService}.
+ */
+public final class OuiIndex {
+    // Thứ tự tra: khối nhỏ nhất (cụ thể nhất) trước
+    private static final int[] PREFIX_BITS = {36, 28, 24};
+    private static final String[] REGISTRIES = {"MA-S", "MA-M", "MA-L"};
+    // Khóa đóng gói khi sắp xếp: prefix (tối đa 36 bit) << 24 | vị trí dòng
+    private static final int ROW_BITS = 24;
+
+    private final long[][] prefixes;
+    private final MacVendor[][] vendors;
+    private final List<String> sources;
+    private final Instant loadedAt;
+
+    private OuiIndex(long[][] prefixes, MacVendor[][] vendors, List<String> sources, Instant loadedAt) {
+        this.prefixes = prefixes;
+        this.vendors = vendors;
+        this.sources = sources;
+        this.loadedAt = loadedAt;
+    }
+
+    public static OuiIndex empty() {
+        long[][] prefixes = new long[PREFIX_BITS.length][0];
+        return new OuiIndex(prefixes, new MacVendor[PREFIX_BITS.length][0], List.of(), null);
+    }
+
+    /**
+     * Reads IEEE registry CSV exports ("Registry,Assignment,Organization Name,Organization Address",
+     * e.g. oui.csv, mam.csv, oui36.csv). When a prefix appears twice, the first file wins.
+     */
+    public static OuiIndex load(List<Path> files) throws IOException {
+        Builder builder = new Builder();
+        List<String> sources = new ArrayList<>();
+        for (Path file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                builder.addCsv(reader);
+            }
+            sources.add(file.toString());
+        }
+        return builder.build(sources);
+    }
+
+    static OuiIndex parse(Reader csv) throws IOException {
+        Builder builder = new Builder();
+        builder.addCsv(new BufferedReader(csv));
+        return builder.build(List.of());
+    }
+
+    /**
+     * @return the vendor of the most specific block containing the address, or null. For a prefix shorter
+     * than 48 bits only blocks no longer than the prefix are considered.
+     */
+    public MacVendor lookup(MacAddress mac) {
+        for (int table = 0; table < PREFIX_BITS.length; table++) {
+            int bits = PREFIX_BITS[table];
+            if (bits > mac.bits()) {
+                continue;
+            }
+            int found = Arrays.binarySearch(prefixes[table], mac.value() >>> (MacAddress.BITS - bits));
+            if (found >= 0) {
+                return vendors[table][found];
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        int size = 0;
+        for (long[] table : prefixes) {
+            size += table.length;
+        }
+        return size;
+    }
+
+    public Map<String, Integer> sizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (int table = PREFIX_BITS.length - 1; table >= 0; table--) {
+            sizes.put(REGISTRIES[table], prefixes[table].length);
+        }
+        return sizes;
+    }
+
+    public List<String> sources() {
+        return sources;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Splits an IEEE address ("street city state CC postcode", one string) into the street part, the
+     * postcode and the country: the country is the last two-letter upper-case token among the final three.
+     * Returns {address, null, null} when no such token is found.
+     */
+    static String[] splitAddress(String address) {
+        String[] tokens = address.strip().split("\\s+");
+        for (int i = tokens.length - 1; i >= Math.max(1, tokens.length - 3); i--) {
+            String token = tokens[i];
+            if (token.length() == 2 && Character.isUpperCase(token.charAt(0)) && Character.isUpperCase(token.charAt(1))) {
+                String street = String.join(" ", Arrays.copyOfRange(tokens, 0, i));
+                String postcode = i + 1 < tokens.length ? String.join(" ", Arrays.copyOfRange(tokens, i + 1, tokens.length)) : null;
+                return new String[]{street, postcode, token};
+            }
+        }
+        return new String[]{address.isBlank() ? null : address.strip(), null, null};
+    }
+
+    /**
+     * Splits one CSV record (RFC 4180 quoting: quoted fields, doubled quotes inside them).
+     */
+    static List<String> splitCsv(String record) {
+        List<String> cells = new ArrayList<>(4);
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().strip());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().strip());
+        return cells;
+    }
+
+    private static final class Builder {
+        private final List<MacVendor> rows = new ArrayList<>();
+        private final long[][] keys = new long[PREFIX_BITS.length][1024];
+        private final int[] counts = new int[PREFIX_BITS.length];
+        // Tên/địa chỉ lặp lại nhiều lần giữa các khối: dùng chung một String
+        private final Map<String, String> strings = new HashMap<>();
+
+        void addCsv(BufferedReader reader) throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Trường trong ngoặc kép có thể xuống dòng: nối tới khi số dấu " chẵn
+                while (count(line, '"') % 2 != 0) {
+                    String more = reader.readLine();
+                    if (more == null) {
+                        break;
+                    }
+                    line = line + "\n" + more;
+                }
+                if (!line.isBlank()) {
+                    add(splitCsv(line));
+                }
+            }
+        }
+
+        private void add(List<String> cells) {
+            if (cells.size() < 3) {
+                return;
+            }
+            String assignment = cells.get(1);
+            int table = tableFor(assignment.length() * 4);
+            if (table < 0) {
+                return; // dòng tiêu đề hoặc assignment không hợp lệ
+            }
+            long prefix;
+            try {
+                prefix = Long.parseLong(assignment, 16);
+            } catch (NumberFormatException e) {
+                return;
+            }
+            if (rows.size() >= 1 << ROW_BITS) {
+                throw new IllegalStateException("Too many registry entries");
+            }
+            String[] address = cells.size() > 3 ? splitAddress(cells.get(3)) : new String[3];
+            String hex = assignment.toUpperCase(Locale.ROOT);
+            String registry = cells.get(0).isEmpty() ? REGISTRIES[table] : intern(cells.get(0));
+            rows.add(new MacVendor(pad(hex, '0'), pad(hex, 'F'), intern(cells.get(2)),
+                    intern(address[0]), null, intern(address[1]), intern(address[2]), registry));
+
+            if (counts[table] == keys[table].length) {
+                keys[table] = Arrays.copyOf(keys[table], counts[table] * 2);
+            }
+            keys[table][counts[table]++] = prefix << ROW_BITS | (rows.size() - 1);
+        }
+
+        OuiIndex build(List<String> sources) {
+            long[][] prefixes = new long[PREFIX_BITS.length][];
+            MacVendor[][] vendors = new MacVendor[PREFIX_BITS.length][];
+            long rowMask = (1L << ROW_BITS) - 1;
+            for (int table = 0; table < PREFIX_BITS.length; table++) {
+                long[] packed = Arrays.copyOf(keys[table], counts[table]);
+                Arrays.sort(packed);
+                long[] tablePrefixes = new long[packed.length];
+                MacVendor[] tableVendors = new MacVendor[packed.length];
+                int size = 0;
+                for (long key : packed) {
+                    long prefix = key >>> ROW_BITS;
+                    // Trùng prefix: giữ dòng xuất hiện trước (vị trí nhỏ hơn được sắp trước)
+                    if (size > 0 && tablePrefixes[size - 1] == prefix) {
+                        continue;
+                    }
+                    tablePrefixes[size] = prefix;
+                    tableVendors[size] = rows.get((int) (key & rowMask));
+                    size++;
+                }
+                prefixes[table] = Arrays.copyOf(tablePrefixes, size);
+                vendors[table] = Arrays.copyOf(tableVendors, size);
+            }
+            return new OuiIndex(prefixes, vendors, List.copyOf(sources), Instant.now());
+        }
+
+        private String intern(String value) {
+            return value == null ? null : strings.computeIfAbsent(value, v -> v);
+        }
+
+        private static int tableFor(int bits) {
+            for (int table = 0; table < PREFIX_BITS.length; table++) {
+                if (PREFIX_BITS[table] == bits) {
+                    return table;
+                }
+            }
+            return -1;
+        }
+
+        private static String pad(String hex, char fill) {
+            return hex + String.valueOf(fill).repeat(MacAddress.BITS / 4 - hex.length());
+        }
+
+        private static int count(String line, char c) {
+            int count = 0;
+            for (int i = 0; i < line.length(); i++) {
+                if (line.charAt(i) == c) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.PhoneBatchResult;
+import com.example.it_tools.dto.PhoneParseResult;
+import com.example.it_tools.util.BoundedParallel;
+import com.example.it_tools.util.LruCache;
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Phone number parsing with the shared (thread-safe) {@link PhoneNumberUtil}, one number at a time or in bulk.
+ * Region names and calling codes are computed once at startup, and parse results (including parse errors)
+ * are cached by (phone, region); the cache is exposed as the "phone-parse" cache.* meters.
+ */
+@Service
+public class PhoneParserService {
+    private static final String CACHE_NAME = "phone-parse";
+    private static final Pattern SPACES = Pattern.compile(" {2,}");
+    // Giống SEPARATOR_PATTERN của libphonenumber: RFC3966 thay các ký tự này bằng '-'
+    private static final Pattern SEPARATORS = Pattern.compile(
+            "[-x\u2010-\u2015\u2212\u30FC\uFF0D-\uFF0F \u00A0\u00AD\u200B\u2060\u3000()\uFF08\uFF09\uFF3B\uFF3D.\\[\\]/~\u2053\u223C\uFF5E]+");
+
+    private final PhoneNumberUtil phoneUtil = PhoneNumberUtil.getInstance();
+    private final Map<String, RegionInfo> regions;
+    private final LruCache<String, CachedParse> cache;
+    private final Executor bulkExecutor;
+    private final int maxInFlight;
+
+    public PhoneParserService(@Qualifier("bulkExecutor") Executor bulkExecutor,
+                              @Value("${bulk.max-in-flight:256}") int maxInFlight,
+                              @Value("${phone.cache.max-size:50000}") int cacheSize,
+                              MeterRegistry meterRegistry) {
+        this.bulkExecutor = bulkExecutor;
+        this.maxInFlight = maxInFlight;
+        this.regions = buildRegionTable(phoneUtil);
+        this.cache = new LruCache<>(cacheSize);
+
+        FunctionCounter.builder("cache.gets", cache, LruCache::hits)
+                .tag("cache", CACHE_NAME).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, LruCache::misses)
+                .tag("cache", CACHE_NAME).tag("result", "miss").register(meterRegistry);
+        Gauge.builder("cache.size", cache, LruCache::size)
+                .tag("cache", CACHE_NAME).register(meterRegistry);
+    }
+
+    /**
+     * @throws NumberParseException if the input is not a phone number (cached like successful results)
+     */
+    public PhoneParseResult parse(String phone, String country) throws NumberParseException {
+        if (phone == null) {
+            return parseUncached(null, country);
+        }
+        String key = cacheKey(phone, country);
+        CachedParse cached = cache.get(key);
+        if (cached == null) {
+            try {
+                cached = new CachedParse(parseUncached(phone, country), null, null);
+            } catch (NumberParseException e) {
+                cached = new CachedParse(null, e.getErrorType(), e.getMessage());
+            }
+            cache.put(key, cached);
+        }
+        if (cached.result() == null) {
+            throw new NumberParseException(cached.errorType(), cached.errorMessage());
+        }
+        return cached.result();
+    }
+
+    PhoneParseResult parseUncached(String phone, String country) throws NumberParseException {
+        PhoneNumber number = phoneUtil.parse(phone, country);
+        String region = phoneUtil.getRegionCodeForNumber(number);
+        RegionInfo numberRegion = region == null ? null : regions.get(region);
+        RegionInfo requestedRegion = country == null ? null : regions.get(country);
+
+        String international = phoneUtil.format(number, PhoneNumberUtil.PhoneNumberFormat.INTERNATIONAL);
+        String nationalSignificant = phoneUtil.getNationalSignificantNumber(number);
+        String e164 = "+" + number.getCountryCode() + nationalSignificant;
+
+        return new PhoneParseResult(
+                region,
+                numberRegion == null ? null : numberRegion.displayName(),
+                // Giữ nguyên hành vi cũ: mã gọi của vùng được gửi lên, 0 nếu không có/không hợp lệ
+                requestedRegion == null ? 0 : requestedRegion.callingCode(),
+                phoneUtil.isValidNumber(number),
+                phoneUtil.isPossibleNumber(number),
+                phoneUtil.getNumberType(number).toString(),
+                international,
+                phoneUtil.format(number, PhoneNumberUtil.PhoneNumberFormat.NATIONAL),
+                e164,
+                rfc3966(number, international));
+    }
+
+    /**
+     * Parses rows on the bulk pool with a bounded number in flight and hands each result to {@code sink}
+     * (on the calling thread) as soon as it completes. Rows that fail carry an error instead.
+     *
+     * @return number of rows processed
+     */
+    public long parseBatch(Iterator<BatchRow> rows, Consumer<PhoneBatchResult> sink) {
+        return BoundedParallel.forEachCompleted(rows, this::parseRow, bulkExecutor, maxInFlight, sink);
+    }
+
+    /**
+     * One input row of a bulk request; {@code error} is set when the row itself could not be read.
+     */
+    public record BatchRow(long row, String phone, String country, String error) {
+    }
+
+    private PhoneBatchResult parseRow(BatchRow row) {
+        if (row.error() != null) {
+            return PhoneBatchResult.failed(row.row(), row.phone(), row.error());
+        }
+        try {
+            return PhoneBatchResult.parsed(row.row(), row.phone(), parse(row.phone(), row.country()));
+        } catch (NumberParseException e) {
+            return PhoneBatchResult.failed(row.row(), row.phone(), "Invalid phone number: " + e.getMessage());
+        } catch (RuntimeException e) {
+            return PhoneBatchResult.failed(row.row(), row.phone(), "Something went wrong.");
+        }
+    }
+
+    // RFC3966 dựng lại từ dạng INTERNATIONAL (cùng quy tắc định dạng), chỉ gọi format khi có extension
+    // hoặc mã quốc gia không có metadata
+    private String rfc3966(PhoneNumber number, String international) {
+        String prefix = "+" + number.getCountryCode() + " ";
+        if (number.hasExtension() || !international.startsWith(prefix)) {
+            return phoneUtil.format(number, PhoneNumberUtil.PhoneNumberFormat.RFC3966);
+        }
+        String grouped = international.substring(prefix.length());
+        Matcher leading = SEPARATORS.matcher(grouped);
+        if (leading.lookingAt()) {
+            grouped = grouped.substring(leading.end());
+        }
+        return "tel:+" + number.getCountryCode() + "-" + SEPARATORS.matcher(grouped).replaceAll("-");
+    }
+
+    // libphonenumber coi nhiều khoảng trắng liên tiếp như một; các khác biệt khác có thể đổi nghĩa nên giữ nguyên
+    private static String cacheKey(String phone, String country) {
+        return (country == null ? "" : country) + '\u0000' + SPACES.matcher(phone.strip()).replaceAll(" ");
+    }
+
+    private static Map<String, RegionInfo> buildRegionTable(PhoneNumberUtil phoneUtil) {
+        Map<String, RegionInfo> table = new HashMap<>();
+        for (String region : phoneUtil.getSupportedRegions()) {
+            table.put(region, new RegionInfo(Locale.of("", region).getDisplayCountry(),
+                    phoneUtil.getCountryCodeForRegion(region)));
+        }
+        // Số không thuộc vùng địa lý nào (vd. +800) có region "001"
+        table.put(PhoneNumberUtil.REGION_CODE_FOR_NON_GEO_ENTITY,
+                new RegionInfo(Locale.of("", PhoneNumberUtil.REGION_CODE_FOR_NON_GEO_ENTITY).getDisplayCountry(), 0));
+        return Map.copyOf(table);
+    }
+
+    private record RegionInfo(String displayName, int callingCode) {
+    }
+
+    private record CachedParse(PhoneParseResult result, NumberParseException.ErrorType errorType, String errorMessage) {
+    }
+}
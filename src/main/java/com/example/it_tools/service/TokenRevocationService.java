@@ -0,0 +1,137 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.model.RevokedToken;
+import com.example.it_tools.repository.RevokedTokenRepository;
+import com.example.it_tools.security.JwtPrincipal;
+import com.example.it_tools.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Revocation list for JWTs, persisted in {@code revoked_tokens} and mirrored in memory so that
+ * {@link com.example.it_tools.security.JwtFilter} never queries Mongo.
+ * Every check goes through a Bloom filter first; only possible hits look at the exact map.
+ * The mirror is reloaded from Mongo periodically, which also picks up revocations made by other
+ * instances, drops expired entries and rebuilds the filter.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    private static final String USER_PREFIX = "user:";
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository repository;
+    private final Duration tokenLifetime;
+    private final int bloomCapacity;
+    // id (jti hoặc "user:" + username) -> mục thu hồi; nguồn chính xác phía sau bộ lọc Bloom
+    private final ConcurrentMap<String, RevokedToken> entries = new ConcurrentHashMap<>();
+    // Ghi và dựng lại bộ lọc tuần tự với nhau để không mất key nào khi hoán đổi
+    private final Object writeLock = new Object();
+    private volatile BloomFilter bloom;
+
+    public TokenRevocationService(RevokedTokenRepository repository,
+                                  @Value("${jwt.expiration}") long tokenLifetimeMillis,
+                                  @Value("${security.revocation.bloom-capacity:100000}") int bloomCapacity) {
+        this.repository = repository;
+        this.tokenLifetime = Duration.ofMillis(tokenLifetimeMillis);
+        this.bloomCapacity = bloomCapacity;
+        this.bloom = new BloomFilter(bloomCapacity, FALSE_POSITIVE_RATE);
+    }
+
+    // Nạp trước khi nhận request để token đã thu hồi không hợp lệ trở lại sau khi khởi động lại
+    @PostConstruct
+    void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.refresh-interval-ms:30000}",
+            initialDelayString = "${security.revocation.refresh-interval-ms:30000}")
+    public void reload() {
+        List<RevokedToken> stored = List.of();
+        try {
+            stored = repository.findByExpiresAtAfter(Instant.now());
+        } catch (DataAccessException e) {
+            logger.warn("Could not load revoked tokens, keeping {} in memory: {}", entries.size(), e.getMessage());
+        }
+        synchronized (writeLock) {
+            for (RevokedToken entry : stored) {
+                entries.merge(entry.getId(), entry, TokenRevocationService::latest);
+            }
+            Instant now = Instant.now();
+            entries.values().removeIf(entry -> !entry.getExpiresAt().isAfter(now));
+
+            BloomFilter rebuilt = new BloomFilter(Math.max(bloomCapacity, entries.size() * 2), FALSE_POSITIVE_RATE);
+            entries.keySet().forEach(rebuilt::add);
+            bloom = rebuilt;
+        }
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        BloomFilter filter = bloom;
+        String tokenId = principal.getTokenId();
+        if (tokenId != null && filter.mightContain(tokenId) && entries.containsKey(tokenId)) {
+            return true;
+        }
+        String userKey = USER_PREFIX + principal.getUsername();
+        if (!filter.mightContain(userKey)) {
+            return false;
+        }
+        RevokedToken cutoff = entries.get(userKey);
+        // iat chỉ chính xác tới giây: token phát hành cùng giây với mốc cũng bị thu hồi
+        return cutoff != null && (principal.getIssuedAt() == null
+                || !principal.getIssuedAt().isAfter(cutoff.getIssuedBefore()));
+    }
+
+    /**
+     * Revokes one token (logout). Tokens issued before jti existed can only be revoked per user.
+     */
+    public void revoke(JwtPrincipal principal) {
+        if (principal.getTokenId() == null) {
+            revokeAllFor(principal.getUsername());
+            return;
+        }
+        record(new RevokedToken(principal.getTokenId(), principal.getUsername(), null, principal.getExpiresAt()));
+    }
+
+    /**
+     * Revokes every token issued to the user so far (logout everywhere, password change, premium downgrade).
+     */
+    public void revokeAllFor(String username) {
+        Instant cutoff = Instant.now();
+        // Sau thời điểm này mọi token bị ảnh hưởng đều đã hết hạn
+        record(new RevokedToken(USER_PREFIX + username, username, cutoff, cutoff.plus(tokenLifetime)));
+    }
+
+    private void record(RevokedToken entry) {
+        synchronized (writeLock) {
+            entries.merge(entry.getId(), entry, TokenRevocationService::latest);
+            bloom.add(entry.getId());
+        }
+        try {
+            repository.save(entry);
+        } catch (DataAccessException e) {
+            // Vẫn có hiệu lực trên instance này; instance khác chỉ thấy khi lưu được
+            logger.warn("Could not persist revocation {}: {}", entry.getId(), e.getMessage());
+        }
+    }
+
+    // Với mốc theo user, giữ mốc muộn hơn
+    private static RevokedToken latest(RevokedToken current, RevokedToken candidate) {
+        if (current.getIssuedBefore() != null && candidate.getIssuedBefore() != null
+                && current.getIssuedBefore().isAfter(candidate.getIssuedBefore())) {
+            return current;
+        }
+        return candidate;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.model.Tool;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable, versioned snapshot of the tool catalog.
+ * A new instance is built on every change and swapped in atomically by {@link ToolService}.
+ * The JSON body is encoded once per snapshot (plain and gzip) so the list endpoint never serializes.
+ */
+public final class ToolCatalog {
+    static final ToolCatalog EMPTY = new ToolCatalog(0L, List.of(), "[]".getBytes(StandardCharsets.UTF_8), Instant.EPOCH);
+
+    private final long version;
+    private final List<Tool> tools;
+    private final Map<String, Tool> toolsById;
+    private final byte[] json;
+    private final byte[] gzipJson;
+    private final String etag;
+    private final Instant lastModified;
+
+    private ToolCatalog(long version, List<Tool> tools, byte[] json, Instant lastModified) {
+        this.version = version;
+        this.tools = List.copyOf(tools);
+        this.toolsById = new HashMap<>();
+        for (Tool tool : this.tools) {
+            if (tool.getToolId() != null) {
+                toolsById.put(tool.getToolId(), tool);
+            }
+        }
+        this.json = json;
+        this.gzipJson = gzip(json);
+        // Chỉ phụ thuộc nội dung: reload không đổi dữ liệu thì client vẫn nhận 304, version nằm ở X-Catalog-Version
+        this.etag = "\"" + digest(json) + "\"";
+        this.lastModified = lastModified;
+    }
+
+    static ToolCatalog encode(long version, List<Tool> tools, ObjectMapper mapper) {
+        try {
+            byte[] json = mapper.writeValueAsBytes(tools);
+            return new ToolCatalog(version, tools, json, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode tool catalog", e);
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Danh sách chỉ đọc, không được sửa các Tool bên trong
+    public List<Tool> getTools() {
+        return tools;
+    }
+
+    public Optional<Tool> findById(String toolId) {
+        return Optional.ofNullable(toolsById.get(toolId));
+    }
+
+    // Các mảng byte dùng chung, chỉ đọc
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzipJson() {
+        return gzipJson;
+    }
+
+    /**
+     * Strong ETag derived from the plain JSON body only; the gzip representation uses {@link #getGzipEtag()}.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getGzipEtag() {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    boolean hasSameContent(ToolCatalog other) {
+        return Arrays.equals(json, other.json);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String digest(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
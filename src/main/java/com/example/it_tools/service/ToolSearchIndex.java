@@ -0,0 +1,275 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.model.Tool;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over tool name, category and description.
+ * Words are indexed by trigram for typo-tolerant matching and kept in a sorted vocabulary for prefix completion.
+ * Updated incrementally by {@link ToolService} whenever a tool is added, changed or removed.
+ */
+@Component
+public class ToolSearchIndex {
+    static final int NAME_WEIGHT = 3;
+    static final int CATEGORY_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    // Độ tương đồng tối thiểu để coi hai từ là khớp (Dice trên trigram)
+    private static final double MIN_SIMILARITY = 0.4;
+    private static final double PREFIX_SIMILARITY = 0.9;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // toolId -> dữ liệu đã index của tool đó
+    private final Map<String, IndexedTool> tools = new HashMap<>();
+    // từ -> (toolId -> trọng số field cao nhất chứa từ đó)
+    private final TreeMap<String, Map<String, Integer>> vocabulary = new TreeMap<>();
+    // trigram -> các từ chứa trigram đó
+    private final Map<String, Set<String>> grams = new HashMap<>();
+
+    /**
+     * Adds or re-indexes a single tool.
+     */
+    public void index(Tool tool) {
+        String toolId = tool.getToolId();
+        if (toolId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            IndexedTool previous = tools.get(toolId);
+            String signature = signature(tool);
+            if (previous != null && previous.signature().equals(signature)) {
+                return;
+            }
+            if (previous != null) {
+                unindex(toolId, previous);
+            }
+            IndexedTool indexed = new IndexedTool(signature, weightedWords(tool));
+            indexed.words().forEach((word, weight) -> addWord(toolId, word, weight));
+            tools.put(toolId, indexed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String toolId) {
+        lock.writeLock().lock();
+        try {
+            IndexedTool previous = tools.remove(toolId);
+            if (previous != null) {
+                unindex(toolId, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Brings the index in line with a full catalog, touching only tools that were added, changed or removed.
+     */
+    public void sync(Collection<Tool> catalog) {
+        lock.writeLock().lock();
+        try {
+            Set<String> seen = new HashSet<>();
+            for (Tool tool : catalog) {
+                if (tool.getToolId() != null) {
+                    seen.add(tool.getToolId());
+                    index(tool);
+                }
+            }
+            for (String toolId : new ArrayList<>(tools.keySet())) {
+                if (!seen.contains(toolId)) {
+                    remove(toolId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked tool ids for a free-text query. Each query word contributes its best match per tool:
+     * exact word, then word prefix (as-you-type), then trigram similarity, weighted by field.
+     */
+    public List<String> search(String query, int limit) {
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Double> scores = new HashMap<>();
+            for (String queryWord : queryWords) {
+                Map<String, Double> best = new HashMap<>();
+                for (String word : candidateWords(queryWord)) {
+                    double similarity = similarity(queryWord, word);
+                    if (similarity < MIN_SIMILARITY) {
+                        continue;
+                    }
+                    vocabulary.get(word).forEach((toolId, weight) ->
+                            best.merge(toolId, similarity * weight, Math::max));
+                }
+                best.forEach((toolId, score) -> scores.merge(toolId, score, Double::sum));
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexed words starting with the given prefix, most widely used first.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> words = tokenize(prefix);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String last = words.get(words.size() - 1);
+        lock.readLock().lock();
+        try {
+            return vocabulary.subMap(last, true, last + Character.MAX_VALUE, false).entrySet().stream()
+                    .sorted((a, b) -> Integer.compare(b.getValue().size(), a.getValue().size()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tools.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<String> candidateWords(String queryWord) {
+        Set<String> candidates = new HashSet<>(
+                vocabulary.subMap(queryWord, true, queryWord + Character.MAX_VALUE, false).keySet());
+        for (String gram : trigrams(queryWord)) {
+            Set<String> words = grams.get(gram);
+            if (words != null) {
+                candidates.addAll(words);
+            }
+        }
+        return candidates;
+    }
+
+    private void addWord(String toolId, String word, int weight) {
+        Map<String, Integer> postings = vocabulary.get(word);
+        if (postings == null) {
+            postings = new HashMap<>();
+            vocabulary.put(word, postings);
+            for (String gram : trigrams(word)) {
+                grams.computeIfAbsent(gram, g -> new HashSet<>()).add(word);
+            }
+        }
+        postings.put(toolId, weight);
+    }
+
+    private void unindex(String toolId, IndexedTool indexed) {
+        for (String word : indexed.words().keySet()) {
+            Map<String, Integer> postings = vocabulary.get(word);
+            if (postings == null) {
+                continue;
+            }
+            postings.remove(toolId);
+            if (postings.isEmpty()) {
+                vocabulary.remove(word);
+                for (String gram : trigrams(word)) {
+                    Set<String> words = grams.get(gram);
+                    if (words != null && words.remove(word) && words.isEmpty()) {
+                        grams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    static double similarity(String queryWord, String word) {
+        if (queryWord.equals(word)) {
+            return 1.0;
+        }
+        if (word.startsWith(queryWord)) {
+            return PREFIX_SIMILARITY;
+        }
+        Set<String> a = trigrams(queryWord);
+        Set<String> b = trigrams(word);
+        int common = 0;
+        for (String gram : a) {
+            if (b.contains(gram)) {
+                common++;
+            }
+        }
+        return 2.0 * common / (a.size() + b.size());
+    }
+
+    // Trigram có đệm hai đầu để từ ngắn vẫn có đủ trigram
+    static Set<String> trigrams(String word) {
+        String padded = "$" + word + "$";
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('đ', 'd').replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : NON_WORD.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static Map<String, Integer> weightedWords(Tool tool) {
+        Map<String, Integer> words = new HashMap<>();
+        tokenize(tool.getDescription()).forEach(w -> words.merge(w, DESCRIPTION_WEIGHT, Math::max));
+        tokenize(tool.getCategory()).forEach(w -> words.merge(w, CATEGORY_WEIGHT, Math::max));
+        tokenize(tool.getName()).forEach(w -> words.merge(w, NAME_WEIGHT, Math::max));
+        return words;
+    }
+
+    private static String signature(Tool tool) {
+        return Objects.toString(tool.getName(), "") + '\u0000'
+                + Objects.toString(tool.getCategory(), "") + '\u0000'
+                + Objects.toString(tool.getDescription(), "");
+    }
+
+    private record IndexedTool(String signature, Map<String, Integer> words) {
+    }
+}
@@ -1,22 +1,97 @@
 package com.example.it_tools.service;
 
+import com.example.it_tools.dto.ToolBulkOperation;
+import com.example.it_tools.dto.ToolBulkResult;
+import com.example.it_tools.dto.ToolPage;
+import com.example.it_tools.dto.ToolPatch;
+import com.example.it_tools.dto.ToolQuery;
 import com.example.it_tools.model.Tool;
 import com.example.it_tools.repository.ToolRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.UnaryOperator;
 
 @Service
 public class ToolService {
+    private static final Logger logger = LoggerFactory.getLogger(ToolService.class);
+
     private final ToolRepository toolRepository;
+    private final ObjectMapper objectMapper;
+    private final ToolSearchIndex searchIndex;
+
+    // Snapshot hiện tại của catalog, chỉ được thay thế nguyên khối
+    private volatile ToolCatalog catalog = ToolCatalog.EMPTY;
+    private volatile boolean loaded;
 
-    public ToolService(ToolRepository toolRepository) {
+    public ToolService(ToolRepository toolRepository, ObjectMapper objectMapper, ToolSearchIndex searchIndex) {
         this.toolRepository = toolRepository;
+        this.objectMapper = objectMapper;
+        this.searchIndex = searchIndex;
     }
 
     public List<Tool> getAllTools() {
-        return toolRepository.findAll();
+        return getCatalog().getTools();
+    }
+
+    /**
+     * Current catalog snapshot, loaded from Mongo on first access.
+     */
+    public ToolCatalog getCatalog() {
+        if (!loaded) {
+            reloadCatalog();
+        }
+        return catalog;
+    }
+
+    /**
+     * Re-reads the whole catalog from Mongo so that edits made directly in the database are picked up.
+     */
+    @Scheduled(fixedDelayString = "${tools.catalog.refresh-interval-ms:30000}",
+            initialDelayString = "${tools.catalog.refresh-interval-ms:30000}")
+    public void refreshCatalog() {
+        try {
+            reloadCatalog();
+        } catch (DataAccessException e) {
+            logger.warn("Tool catalog refresh failed, keeping version {}: {}", catalog.getVersion(), e.getMessage());
+        }
+    }
+
+    /**
+     * Server-side filtered, cursor-paged query; reads Mongo directly with a field projection.
+     */
+    public ToolPage queryTools(ToolQuery query) {
+        return toolRepository.findPage(query);
+    }
+
+    /**
+     * Ranked full-text search over name, category and description, answered from memory.
+     */
+    public List<Tool> searchTools(String query, int limit) {
+        ToolCatalog current = getCatalog();
+        return searchIndex.search(query, limit).stream()
+                .map(current::findById)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    public List<String> suggestTerms(String prefix, int limit) {
+        getCatalog();
+        return searchIndex.suggest(prefix, limit);
     }
 
     public Optional<Tool> getById(String id) {
@@ -24,14 +99,160 @@ public class ToolService {
     }
 
     public Tool updateTool(Tool tool) {
-        return toolRepository.save(tool);
+        Tool saved = toolRepository.save(tool);
+        swapCatalog(tools -> replace(tools, saved));
+        return saved;
+    }
+
+    /**
+     * Atomic partial update: one server-side {@code $set} that also bumps {@code revision}, no read-modify-write.
+     * When {@code expectedRevision} is given the update only applies to that revision. The catalog is updated
+     * from the document Mongo returns; asking for the previous document costs one extra read to refresh it.
+     *
+     * @return the updated document, or the previous one when {@code returnNew} is false; empty if the tool does not exist
+     * @throws OptimisticLockingFailureException if the tool exists but its revision no longer matches
+     */
+    public Optional<Tool> patchTool(String id, ToolPatch patch, Long expectedRevision, boolean returnNew) {
+        Tool returned = toolRepository.patch(id, patch, expectedRevision, returnNew);
+        if (returned == null) {
+            // Chỉ tốn thêm một truy vấn ở nhánh thất bại để phân biệt 404 và 409
+            if (expectedRevision != null && toolRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException(
+                        "Tool " + id + " is no longer at revision " + expectedRevision);
+            }
+            return Optional.empty();
+        }
+        if (returnNew) {
+            swapCatalog(tools -> replace(tools, returned));
+        } else {
+            toolRepository.findById(id).ifPresent(after -> swapCatalog(tools -> replace(tools, after)));
+        }
+        normalizeToolId(returned);
+        return Optional.of(returned);
     }
 
     // Thêm phương thức xóa tool
     public void deleteTool(String id) {
         toolRepository.deleteById(id);  // Xóa tool theo ID từ repository
+        swapCatalog(tools -> {
+            tools.removeIf(t -> id.equals(t.getToolId()));
+            searchIndex.remove(id);
+            return tools;
+        });
     }
+
+    /**
+     * The tool an upload would register again: same path when one is given, otherwise (or if none has
+     * that path) same category and name.
+     */
+    public Optional<Tool> findUploaded(Tool tool) {
+        Optional<Tool> existing = tool.getPath() != null && !tool.getPath().isEmpty()
+                ? toolRepository.findFirstByPath(tool.getPath())
+                : Optional.empty();
+        if (existing.isEmpty()) {
+            existing = toolRepository.findFirstByCategoryAndName(tool.getCategory(), tool.getName());
+        }
+        existing.ifPresent(ToolService::normalizeToolId);
+        return existing;
+    }
+
     public Tool addTool(Tool tool) {
-        return toolRepository.save(tool);
+        Tool saved = toolRepository.save(tool);
+        swapCatalog(tools -> replace(tools, saved));
+        return saved;
+    }
+
+    /**
+     * Applies a batch of toggles, order changes, premium flips and deletions in one bulk write,
+     * then patches the catalog snapshot from the operations that were applied.
+     */
+    public List<ToolBulkResult> applyBulk(List<ToolBulkOperation> operations) {
+        List<ToolBulkResult> results = toolRepository.applyBulk(operations);
+        boolean changed = results.stream().anyMatch(r -> r.getStatus() == ToolBulkResult.Status.UPDATED
+                || r.getStatus() == ToolBulkResult.Status.DELETED);
+        if (changed) {
+            swapCatalog(tools -> applyOperations(tools, operations, results));
+        }
+        return results;
+    }
+
+    private List<Tool> applyOperations(List<Tool> tools, List<ToolBulkOperation> operations, List<ToolBulkResult> results) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < tools.size(); i++) {
+            positions.put(tools.get(i).getToolId(), i);
+        }
+        Set<String> deleted = new HashSet<>();
+        for (ToolBulkResult result : results) {
+            Integer position = positions.get(result.getToolId());
+            if (position == null) {
+                continue; // Chưa có trong snapshot: lần refresh định kỳ sẽ lấy về
+            }
+            if (result.getStatus() == ToolBulkResult.Status.DELETED) {
+                deleted.add(result.getToolId());
+                searchIndex.remove(result.getToolId());
+            } else if (result.getStatus() == ToolBulkResult.Status.UPDATED) {
+                // Snapshot dùng chung giữa các request: sửa trên bản sao
+                Tool updated = new Tool();
+                BeanUtils.copyProperties(tools.get(position), updated);
+                ToolBulkOperation operation = operations.get(result.getIndex());
+                if (operation.getEnabled() != null) {
+                    updated.setEnabled(operation.getEnabled());
+                }
+                if (operation.getPremium() != null) {
+                    updated.setPremium(operation.getPremium());
+                }
+                if (operation.getOrder() != null) {
+                    updated.setOrder(operation.getOrder());
+                }
+                updated.setRevision(updated.getRevision() + 1);
+                tools.set(position, updated);
+                searchIndex.index(updated);
+            }
+        }
+        if (!deleted.isEmpty()) {
+            tools.removeIf(tool -> deleted.contains(tool.getToolId()));
+        }
+        return tools;
+    }
+
+    private synchronized void reloadCatalog() {
+        List<Tool> tools = toolRepository.findAll();
+        tools.forEach(ToolService::normalizeToolId);
+        ToolCatalog reloaded = ToolCatalog.encode(catalog.getVersion() + 1, tools, objectMapper);
+        // Giữ nguyên version (và ETag) nếu nội dung không đổi
+        if (!loaded || !reloaded.hasSameContent(catalog)) {
+            catalog = reloaded;
+            searchIndex.sync(reloaded.getTools());
+        }
+        loaded = true;
+    }
+
+    // Áp dụng thay đổi lên bản sao của snapshot hiện tại rồi thay thế nguyên tử
+    private synchronized void swapCatalog(UnaryOperator<List<Tool>> change) {
+        if (!loaded) {
+            return; // Lần đọc đầu tiên sẽ tải toàn bộ từ Mongo
+        }
+        List<Tool> tools = change.apply(new ArrayList<>(catalog.getTools()));
+        catalog = ToolCatalog.encode(catalog.getVersion() + 1, tools, objectMapper);
+    }
+
+    private List<Tool> replace(List<Tool> tools, Tool saved) {
+        normalizeToolId(saved);
+        searchIndex.index(saved);
+        for (int i = 0; i < tools.size(); i++) {
+            if (Objects.equals(tools.get(i).getToolId(), saved.getToolId())) {
+                tools.set(i, saved);
+                return tools;
+            }
+        }
+        tools.add(saved);
+        return tools;
+    }
+
+    // Đảm bảo toolId luôn là chuỗi hex của _id
+    private static void normalizeToolId(Tool tool) {
+        if (tool.getId() != null) {
+            tool.setToolId(tool.getId().toHexString());
+        }
     }
 }
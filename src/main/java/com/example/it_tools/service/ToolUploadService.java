@@ -0,0 +1,198 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.model.Tool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Stores an uploaded tool component and registers the tool.
+ * The upload is streamed to a temp file next to the target, fsynced and atomically renamed into place;
+ * the Tool document is only saved once the file is durable.
+ */
+@Service
+public class ToolUploadService {
+    private static final Logger logger = LoggerFactory.getLogger(ToolUploadService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern NON_SLUG = Pattern.compile("[^a-z0-9._]+");
+    private static final Pattern EDGE_PUNCTUATION = Pattern.compile("^[.-]+|[.-]+$");
+
+    private final ToolService toolService;
+    private final Path toolsDirectory;
+    // Khóa theo file đích để hai upload cùng tên không ghi đè lẫn nhau
+    private final ConcurrentMap<Path, Object> targetLocks = new ConcurrentHashMap<>();
+
+    public ToolUploadService(ToolService toolService,
+                             @Value("${tools.upload.dir:${user.dir}/frontend/src/components/tools}") String toolsDirectory) {
+        this.toolService = toolService;
+        this.toolsDirectory = Paths.get(toolsDirectory).toAbsolutePath().normalize();
+    }
+
+    public Tool upload(Tool tool, MultipartFile file) throws IOException {
+        if (tool.getCategory() == null || tool.getName() == null) {
+            throw new IllegalArgumentException("Tool name and category are required");
+        }
+        String category = slug(tool.getCategory());
+        // Generate file name from tool name
+        String fileName = slug(tool.getName()) + ".jsx";
+
+        Path directory = Files.createDirectories(toolsDirectory.resolve(category));
+        Path target = directory.resolve(fileName);
+
+        // File tạm nằm cùng thư mục để rename là nguyên tử
+        Path temp = Files.createTempFile(directory, ".upload-", ".tmp");
+        try {
+            String hash = copyDurably(file, temp);
+            synchronized (targetLocks.computeIfAbsent(target, p -> new Object())) {
+                return commit(tool, target, temp, hash);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Tool commit(Tool tool, Path target, Path temp, String hash) throws IOException {
+        boolean exists = Files.exists(target);
+        if (exists && Files.size(target) == Files.size(temp) && hash.equals(hashOf(target))) {
+            // Nội dung giống hệt file hiện có: không ghi lại, và không tạo thêm Tool nếu đã có
+            Optional<Tool> existing = toolService.findUploaded(tool);
+            if (existing.isPresent()) {
+                logger.info("Upload for {} is identical to {}, returning existing tool", tool.getName(), target);
+                return existing.get();
+            }
+            tool.setContentHash(hash);
+            return toolService.addTool(tool);
+        }
+
+        Path previous = null;
+        if (exists) {
+            previous = Files.createTempFile(target.getParent(), ".previous-", ".tmp");
+            Files.move(target, previous, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(target.getParent());
+
+        try {
+            Tool saved = register(tool, hash);
+            if (previous != null) {
+                Files.deleteIfExists(previous);
+            }
+            return saved;
+        } catch (RuntimeException e) {
+            // Mongo lỗi: trả lại trạng thái file như trước khi upload
+            if (previous != null) {
+                Files.move(previous, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(target);
+            }
+            throw e;
+        }
+    }
+
+    // File mới cho tool đã có: cập nhật path và hash của bản ghi cũ thay vì thêm một Tool trùng tên
+    private Tool register(Tool tool, String hash) {
+        Optional<Tool> existing = toolService.findUploaded(tool);
+        if (existing.isEmpty()) {
+            tool.setContentHash(hash);
+            return toolService.addTool(tool);
+        }
+        Tool current = existing.get();
+        if (tool.getPath() != null && !tool.getPath().isEmpty()) {
+            current.setPath(tool.getPath());
+        }
+        current.setContentHash(hash);
+        logger.info("Upload replaces the component of existing tool {}", current.getToolId());
+        return toolService.updateTool(current);
+    }
+
+    // Stream multipart -> file tạm qua NIO channel, băm SHA-256 trên đường đi, rồi fsync
+    private static String copyDurably(MultipartFile file, Path temp) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream input = file.getInputStream();
+             ReadableByteChannel in = Channels.newChannel(input);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.array(), 0, buffer.limit());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            out.force(true);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Luôn băm file trên đĩa: file dưới frontend/src có thể bị sửa tay bất cứ lúc nào
+    private static String hashOf(Path path) throws IOException {
+        MessageDigest digest = sha256();
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // fsync thư mục để rename được ghi bền; một số hệ điều hành (Windows) không hỗ trợ
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Directory fsync not supported for {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Lower-case ASCII file name segment: accents are stripped, any other character run becomes '-'.
+     * "Mã hóa (AES) & Base64" gives "ma-hoa-aes-base64".
+     */
+    static String slug(String value) {
+        String ascii = Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .replace('đ', 'd').replace('Đ', 'D')
+                .toLowerCase(Locale.ROOT);
+        String slug = EDGE_PUNCTUATION.matcher(NON_SLUG.matcher(ascii).replaceAll("-")).replaceAll("");
+        if (slug.isEmpty() || slug.contains("..")) {
+            throw new IllegalArgumentException("Invalid tool name or category: " + value);
+        }
+        return slug;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
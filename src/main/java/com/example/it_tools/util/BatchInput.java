@@ -0,0 +1,236 @@
+package com.example.it_tools.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy readers for bulk request bodies: elements are pulled one at a time, never buffered as a whole.
+ * I/O and syntax errors surface as {@link UncheckedIOException} from {@code hasNext()}.
+ */
+public final class BatchInput {
+
+    public enum Format {
+        JSON, NDJSON, CSV;
+
+        /**
+         * Picks the format from the file extension, then the content type; plain text is read as CSV.
+         */
+        public static Format detect(String contentType, String filename) {
+            String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            if (name.endsWith(".json")) {
+                return JSON;
+            }
+            if (name.endsWith(".csv") || name.endsWith(".txt")) {
+                return CSV;
+            }
+            String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+            if (type.contains("ndjson") || type.contains("jsonl") || type.contains("json-seq")) {
+                return NDJSON;
+            }
+            if (type.contains("json")) {
+                return JSON;
+            }
+            return CSV;
+        }
+    }
+
+    private BatchInput() {
+    }
+
+    /**
+     * Elements of a top-level JSON array, each read as a tree.
+     */
+    public static Iterator<JsonNode> jsonArray(InputStream in, ObjectMapper mapper) {
+        JsonParser parser;
+        try {
+            parser = mapper.getFactory().createParser(in);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Iterator<>() {
+            private JsonToken next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = parser.nextToken();
+                        if (next == null) {
+                            throw new IOException("Unexpected end of JSON array");
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return next != JsonToken.END_ARRAY;
+            }
+
+            @Override
+            public JsonNode next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                next = null;
+                try {
+                    return parser.readValueAsTree();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Non-blank lines as UTF-8 text (NDJSON records or CSV rows), with surrounding whitespace trimmed.
+     */
+    public static Iterator<String> lines(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return new Iterator<>() {
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (next == null) {
+                        String line = reader.readLine();
+                        if (line == null) {
+                            return false;
+                        }
+                        line = line.strip();
+                        if (!line.isEmpty()) {
+                            next = line;
+                        }
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String line = next;
+                next = null;
+                return line;
+            }
+        };
+    }
+
+    /**
+     * A CSV cell with surrounding whitespace and one pair of double quotes removed.
+     */
+    public static String unquote(String cell) {
+        String value = cell.strip();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).strip();
+        }
+        return value;
+    }
+
+    /**
+     * Drops the first line when its first CSV cell is {@code header} (case-insensitive).
+     */
+    public static Iterator<String> withoutHeader(Iterator<String> lines, String header) {
+        return new Iterator<>() {
+            private boolean checked;
+            private String first;
+
+            @Override
+            public boolean hasNext() {
+                if (!checked) {
+                    checked = true;
+                    if (lines.hasNext()) {
+                        String line = lines.next();
+                        if (!unquote(line.split(",", 2)[0]).equalsIgnoreCase(header)) {
+                            first = line;
+                        }
+                    }
+                }
+                return first != null || lines.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (first != null) {
+                    String line = first;
+                    first = null;
+                    return line;
+                }
+                return lines.next();
+            }
+        };
+    }
+
+    /**
+     * Maps each element together with its 1-based position in the input.
+     */
+    public static <T, R> Iterator<R> numbered(Iterator<T> source, RowMapper<? super T, ? extends R> mapper) {
+        return new Iterator<>() {
+            private long row;
+
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public R next() {
+                return mapper.map(++row, source.next());
+            }
+        };
+    }
+
+    /**
+     * Consecutive elements in lists of up to {@code size}, for handing work to a pool a chunk at a time.
+     */
+    public static <T> Iterator<List<T>> chunked(Iterator<T> source, int size) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<T> chunk = new ArrayList<>(size);
+                while (chunk.size() < size && source.hasNext()) {
+                    chunk.add(source.next());
+                }
+                return chunk;
+            }
+        };
+    }
+
+    public interface RowMapper<T, R> {
+        R map(long row, T element);
+    }
+}
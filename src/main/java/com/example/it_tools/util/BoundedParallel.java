@@ -0,0 +1,94 @@
+package com.example.it_tools.util;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a task over a stream of inputs on an executor while keeping at most {@code maxInFlight}
+ * tasks pending, so memory does not grow with the input size.
+ * Results are handed to the sink on the calling thread in completion order.
+ */
+public final class BoundedParallel {
+
+    private BoundedParallel() {
+    }
+
+    /**
+     * If the input iterator fails part way, results already submitted are still delivered
+     * before the exception is rethrown.
+     *
+     * @return number of results delivered to the sink
+     */
+    public static <T, R> long forEachCompleted(Iterator<? extends T> inputs, Function<? super T, ? extends R> task,
+                                               Executor executor, int maxInFlight, Consumer<? super R> sink) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        CompletionService<R> completion = new ExecutorCompletionService<>(executor);
+        Set<Future<R>> pending = new HashSet<>();
+        long delivered = 0;
+        RuntimeException inputFailure = null;
+        try {
+            while (true) {
+                T input;
+                try {
+                    if (!inputs.hasNext()) {
+                        break;
+                    }
+                    input = inputs.next();
+                } catch (RuntimeException e) {
+                    inputFailure = e;
+                    break;
+                }
+                if (pending.size() >= maxInFlight) {
+                    deliverNext(completion, pending, sink);
+                    delivered++;
+                }
+                pending.add(completion.submit(() -> task.apply(input)));
+            }
+            while (!pending.isEmpty()) {
+                deliverNext(completion, pending, sink);
+                delivered++;
+            }
+        } finally {
+            // Sink lỗi (client ngắt kết nối) hoặc bị interrupt: hủy phần còn lại
+            pending.forEach(future -> future.cancel(true));
+        }
+        if (inputFailure != null) {
+            throw inputFailure;
+        }
+        return delivered;
+    }
+
+    private static <R> void deliverNext(CompletionService<R> completion, Set<Future<R>> pending,
+                                        Consumer<? super R> sink) {
+        Future<R> done;
+        try {
+            done = completion.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for results");
+        }
+        pending.remove(done);
+        try {
+            sink.accept(done.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for results");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.it_tools.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads UTF-8 lines from a channel through one fixed buffer, so memory does not depend on the input size.
+ * Lines longer than {@code maxLineBytes} are cut at that length and flagged as truncated (the rest of the
+ * line is skipped). Line numbers are 1-based and count every line, including blank ones.
+ */
+public final class ChannelLineReader implements Iterator<ChannelLineReader.Line> {
+
+    public record Line(long number, String text, boolean truncated) {
+    }
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] lineBytes;
+    private int lineLength;
+    private boolean overflow;
+    private boolean pending;
+    private boolean eof;
+    private long lineNumber;
+    private Line next;
+
+    public ChannelLineReader(ReadableByteChannel channel, int bufferSize, int maxLineBytes) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+        this.lineBytes = new byte[maxLineBytes];
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Line next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Line line = next;
+        next = null;
+        return line;
+    }
+
+    private Line readLine() throws IOException {
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (eof) {
+                    // Dòng cuối không có '\n'
+                    return pending ? finishLine() : null;
+                }
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read < 0) {
+                    eof = true;
+                }
+                continue;
+            }
+            byte[] array = buffer.array();
+            int start = buffer.arrayOffset() + buffer.position();
+            int end = buffer.arrayOffset() + buffer.limit();
+            int newline = start;
+            while (newline < end && array[newline] != '\n') {
+                newline++;
+            }
+            append(array, start, newline - start);
+            pending = true;
+            if (newline < end) {
+                buffer.position(newline + 1 - buffer.arrayOffset());
+                return finishLine();
+            }
+            buffer.position(buffer.limit());
+        }
+    }
+
+    private void append(byte[] source, int offset, int length) {
+        int room = lineBytes.length - lineLength;
+        if (length > room) {
+            overflow = true;
+            length = room;
+        }
+        System.arraycopy(source, offset, lineBytes, lineLength, length);
+        lineLength += length;
+    }
+
+    private Line finishLine() {
+        int length = lineLength;
+        if (length > 0 && lineBytes[length - 1] == '\r') {
+            length--;
+        }
+        Line line = new Line(++lineNumber, new String(lineBytes, 0, length, StandardCharsets.UTF_8), overflow);
+        lineLength = 0;
+        overflow = false;
+        pending = false;
+        return line;
+    }
+}
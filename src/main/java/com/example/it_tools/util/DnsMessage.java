@@ -0,0 +1,140 @@
+package com.example.it_tools.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal DNS wire format (RFC 1035) for MX lookups: builds a recursive MX query and reads back the
+ * response code, the MX answers with their TTL, and the negative-caching TTL from the SOA in the
+ * authority section (RFC 2308). JNDI's DNS provider does not expose TTLs, hence this codec.
+ */
+public final class DnsMessage {
+    public static final int TYPE_MX = 15;
+    public static final int TYPE_SOA = 6;
+    public static final int CLASS_IN = 1;
+    public static final int RCODE_NOERROR = 0;
+    public static final int RCODE_NXDOMAIN = 3;
+    static final int HEADER_BYTES = 12;
+    static final int MAX_NAME_BYTES = 255;
+
+    /**
+     * @param ttlSeconds         smallest TTL among the MX answers, -1 when there are none
+     * @param negativeTtlSeconds min(SOA TTL, SOA minimum) from the authority section, -1 when absent
+     */
+    public record MxAnswer(int id, int rcode, boolean truncated, int mxCount, long ttlSeconds, long negativeTtlSeconds) {
+        public boolean hasMx() {
+            return mxCount > 0;
+        }
+    }
+
+    private DnsMessage() {
+    }
+
+    /**
+     * @param domain ASCII (already IDN-encoded) domain name without the trailing dot
+     * @throws IllegalArgumentException if the name has an empty label, a label over 63 bytes or is too long
+     */
+    public static byte[] mxQuery(int id, String domain) {
+        byte[] name = domain.getBytes(StandardCharsets.US_ASCII);
+        byte[] query = new byte[HEADER_BYTES + name.length + 2 + 4];
+        query[0] = (byte) (id >>> 8);
+        query[1] = (byte) id;
+        query[2] = 0x01; // RD: yêu cầu resolver truy vấn đệ quy
+        query[5] = 1;    // QDCOUNT
+        int pos = HEADER_BYTES;
+        int labelStart = 0;
+        for (int i = 0; i <= name.length; i++) {
+            if (i == name.length || name[i] == '.') {
+                int labelLength = i - labelStart;
+                if (labelLength == 0 || labelLength > 63) {
+                    throw new IllegalArgumentException("Invalid domain name: " + domain);
+                }
+                query[pos++] = (byte) labelLength;
+                System.arraycopy(name, labelStart, query, pos, labelLength);
+                pos += labelLength;
+                labelStart = i + 1;
+            }
+        }
+        if (pos - HEADER_BYTES + 1 > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Invalid domain name: " + domain);
+        }
+        query[pos++] = 0;
+        query[pos++] = 0;
+        query[pos++] = TYPE_MX;
+        query[pos++] = 0;
+        query[pos] = CLASS_IN;
+        return query;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the message is not a well-formed DNS response
+     */
+    public static MxAnswer parseMxResponse(byte[] data, int length) {
+        if (length < HEADER_BYTES || (data[2] & 0x80) == 0) {
+            throw new IllegalArgumentException("Not a DNS response");
+        }
+        int id = u16(data, 0, length);
+        boolean truncated = (data[2] & 0x02) != 0;
+        int rcode = data[3] & 0x0F;
+        int questions = u16(data, 4, length);
+        int answers = u16(data, 6, length);
+        int authorities = u16(data, 8, length);
+
+        int pos = HEADER_BYTES;
+        for (int i = 0; i < questions; i++) {
+            pos = skipName(data, pos, length) + 4;
+        }
+        int mxCount = 0;
+        long ttl = -1;
+        long negativeTtl = -1;
+        for (int i = 0; i < answers + authorities; i++) {
+            pos = skipName(data, pos, length);
+            int type = u16(data, pos, length);
+            long recordTtl = u32(data, pos + 4, length);
+            if (recordTtl > Integer.MAX_VALUE) {
+                recordTtl = 0; // RFC 2181: bit cao bật thì coi TTL là 0
+            }
+            int rdLength = u16(data, pos + 8, length);
+            int rdata = pos + 10;
+            pos = rdata + rdLength;
+            if (pos > length) {
+                throw new IllegalArgumentException("Truncated DNS record");
+            }
+            if (i < answers && type == TYPE_MX) {
+                mxCount++;
+                ttl = ttl < 0 ? recordTtl : Math.min(ttl, recordTtl);
+            } else if (i >= answers && type == TYPE_SOA && rdLength >= 4) {
+                // Trường MINIMUM là 4 byte cuối của RDATA
+                negativeTtl = Math.min(recordTtl, u32(data, pos - 4, length));
+            }
+        }
+        return new MxAnswer(id, rcode, truncated, mxCount, ttl, negativeTtl);
+    }
+
+    // Tên có thể kết thúc bằng con trỏ nén (2 byte, 11xxxxxx) thay vì nhãn rỗng
+    private static int skipName(byte[] data, int pos, int length) {
+        while (true) {
+            if (pos >= length) {
+                throw new IllegalArgumentException("Truncated DNS name");
+            }
+            int labelLength = data[pos] & 0xFF;
+            if (labelLength == 0) {
+                return pos + 1;
+            }
+            if ((labelLength & 0xC0) == 0xC0) {
+                return pos + 2;
+            }
+            pos += 1 + labelLength;
+        }
+    }
+
+    private static int u16(byte[] data, int pos, int length) {
+        if (pos + 2 > length) {
+            throw new IllegalArgumentException("Truncated DNS message");
+        }
+        return (data[pos] & 0xFF) << 8 | data[pos + 1] & 0xFF;
+    }
+
+    private static long u32(byte[] data, int pos, int length) {
+        return (long) u16(data, pos, length) << 16 | u16(data, pos + 2, length);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.it_tools.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small bounded LRU cache with optional per-entry expiry and hit/miss counters.
+ * Entries never expire only when the cache is built without a TTL and put without one; a zero or negative
+ * per-entry TTL means the value is already stale and is not stored.
+ * Every operation takes one short lock; values should be immutable.
+ */
+public class LruCache<K, V> {
+    private static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final int maxSize;
+    private final long defaultTtlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Cache whose entries never expire unless put with their own TTL.
+     */
+    public LruCache(int maxSize) {
+        this(maxSize, NO_EXPIRY);
+    }
+
+    /**
+     * @param ttl default time to live, must be positive
+     */
+    public LruCache(int maxSize, Duration ttl) {
+        this(maxSize, positive(ttl).toNanos());
+    }
+
+    private LruCache(int maxSize, long defaultTtlNanos) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.defaultTtlNanos = defaultTtlNanos;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > LruCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Cached value, or null when absent or expired.
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                entries.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, defaultTtlNanos);
+    }
+
+    /**
+     * Stores the value for {@code ttl}; a zero or negative TTL removes the key instead (e.g. DNS TTL 0).
+     */
+    public void put(K key, V value, Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            remove(key);
+            return;
+        }
+        put(key, value, ttl.toNanos());
+    }
+
+    private void put(K key, V value, long ttlNanos) {
+        long expiresAt = ttlNanos == NO_EXPIRY ? NO_EXPIRY : System.nanoTime() + ttlNanos;
+        lock.lock();
+        try {
+            entries.put(key, new Entry<>(value, expiresAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private static Duration positive(Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        return ttl;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt != NO_EXPIRY && now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.it_tools.util;
+
+/**
+ * A MAC address or prefix parsed from any common notation: colon, dash or dot separated
+ * ("20:37:06:12:34:56", "20-37-06-12-34-56", "2037.0612.3456") or bare hex ("203706123456").
+ *
+ * @param value 48-bit address; digits missing from a prefix are zero
+ * @param bits  number of bits given in the input (24 to 48, a multiple of 4)
+ */
+public record MacAddress(long value, int bits) {
+    public static final int BITS = 48;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * @return null when the input has other characters, fewer than 6 or more than 12 hex digits
+     */
+    public static MacAddress parse(CharSequence input) {
+        if (input == null) {
+            return null;
+        }
+        long value = 0;
+        int digits = 0;
+        for (int i = 0, length = input.length(); i < length; i++) {
+            char c = input.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            } else if (c == ':' || c == '-' || c == '.' || c == ' ') {
+                continue;
+            } else {
+                return null;
+            }
+            if (++digits > BITS / 4) {
+                return null;
+            }
+            value = value << 4 | digit;
+        }
+        if (digits < 6) {
+            return null;
+        }
+        int bits = digits * 4;
+        return new MacAddress(value << (BITS - bits), bits);
+    }
+
+    /**
+     * Canonical upper-case colon form of the full 48-bit value.
+     */
+    @Override
+    public String toString() {
+        char[] out = new char[17];
+        for (int i = 0; i < 6; i++) {
+            int octet = (int) (value >>> (40 - 8 * i)) & 0xFF;
+            if (i > 0) {
+                out[3 * i - 1] = ':';
+            }
+            out[3 * i] = HEX[octet >>> 4];
+            out[3 * i + 1] = HEX[octet & 0xF];
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.it_tools.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded TTL cache for slow lookups, with stale-while-revalidate: for {@code ttl} an entry is served as is;
+ * for a further {@code staleTtl} it is still served immediately while one background refresh replaces it
+ * (a failed refresh keeps the old value). Misses go through a {@link SingleFlight}, so concurrent callers
+ * of the same key share one load. Null results are returned but not cached, and loader exceptions reach
+ * every caller that waited on that load.
+ */
+public class RefreshingCache<K, V> {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshingCache.class);
+
+    private final LruCache<K, Entry<V>> entries;
+    private final SingleFlight<K, V> loads = new SingleFlight<>();
+    private final long ttlNanos;
+    private final Duration retention;
+    private final Executor refreshExecutor;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RefreshingCache(int maxSize, Duration ttl, Duration staleTtl, Executor refreshExecutor) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        this.entries = new LruCache<>(maxSize);
+        this.ttlNanos = ttl.toNanos();
+        this.retention = ttl.plus(staleTtl.isNegative() ? Duration.ZERO : staleTtl);
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (System.nanoTime() - entry.loadedAt() < ttlNanos) {
+                hits.increment();
+            } else {
+                // Hết hạn nhưng còn trong thời gian stale: trả ngay giá trị cũ, làm mới ở nền (một lần mỗi key)
+                staleHits.increment();
+                loads.submit(key, () -> load(key, loader), refreshExecutor)
+                        .exceptionally(e -> {
+                            logger.debug("Background refresh of {} failed, serving stale value: {}", key, e.getMessage());
+                            return null;
+                        });
+            }
+            return entry.value();
+        }
+        misses.increment();
+        return loads.execute(key, () -> load(key, loader));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long staleHits() {
+        return staleHits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Callers that waited on a load already running for their key instead of starting another.
+     */
+    public long coalesced() {
+        return loads.shared();
+    }
+
+    /**
+     * Same meters as the other caches (cache.gets by result, cache.size) plus cache.coalesced.
+     */
+    public void registerMetrics(MeterRegistry meterRegistry, String cacheName) {
+        FunctionCounter.builder("cache.gets", this, RefreshingCache::hits)
+                .tag("cache", cacheName).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", this, RefreshingCache::staleHits)
+                .tag("cache", cacheName).tag("result", "stale").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", this, RefreshingCache::misses)
+                .tag("cache", cacheName).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.coalesced", this, RefreshingCache::coalesced)
+                .tag("cache", cacheName).register(meterRegistry);
+        Gauge.builder("cache.size", this, RefreshingCache::size)
+                .tag("cache", cacheName).register(meterRegistry);
+    }
+
+    private V load(K key, Supplier<V> loader) {
+        V value = loader.get();
+        if (value != null) {
+            entries.put(key, new Entry<>(value, System.nanoTime()), retention);
+        }
+        return value;
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
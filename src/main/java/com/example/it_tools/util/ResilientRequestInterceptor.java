@@ -0,0 +1,109 @@
+package com.example.it_tools.util;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Guards every call to one upstream with a bulkhead (fail fast when too many calls are in flight) and a
+ * circuit breaker fed by I/O errors, timeouts and 5xx responses. The response body is read inside the
+ * guard, so a read timeout while streaming the body counts as a failure and the permit is held until
+ * the connection is back in the pool. Rejected calls surface as {@link ResourceAccessException}, like
+ * any other I/O failure of a {@code RestTemplate}.
+ */
+public class ResilientRequestInterceptor implements ClientHttpRequestInterceptor {
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public ResilientRequestInterceptor(Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!bulkhead.tryAcquirePermission()) {
+            throw new ResourceAccessException("Too many concurrent calls to " + bulkhead.getName());
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                throw new ResourceAccessException("Circuit breaker for " + circuitBreaker.getName() + " is "
+                        + circuitBreaker.getState());
+            }
+            long start = circuitBreaker.getCurrentTimestamp();
+            BufferedResponse response;
+            try (ClientHttpResponse raw = execution.execute(request, body)) {
+                response = new BufferedResponse(raw);
+            } catch (IOException | RuntimeException e) {
+                circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start,
+                        circuitBreaker.getTimestampUnit(), e);
+                throw e;
+            }
+            long duration = circuitBreaker.getCurrentTimestamp() - start;
+            if (response.getStatusCode().is5xxServerError()) {
+                // Lỗi phía upstream: tính vào circuit breaker, RestTemplate vẫn ném lỗi như bình thường
+                circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                        HttpServerErrorException.create(response.getStatusCode(), response.getStatusText(),
+                                response.getHeaders(), response.body, null));
+            } else {
+                circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+            }
+            return response;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    // Phản hồi đã đọc hết vào bộ nhớ, kết nối đã trả về pool
+    private static final class BufferedResponse implements ClientHttpResponse {
+        private final HttpStatusCode statusCode;
+        private final String statusText;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        BufferedResponse(ClientHttpResponse response) throws IOException {
+            this.statusCode = response.getStatusCode();
+            this.statusText = response.getStatusText();
+            this.headers = HttpHeaders.readOnlyHttpHeaders(response.getHeaders());
+            try (InputStream in = response.getBody()) {
+                this.body = in.readAllBytes();
+            }
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public String getStatusText() {
+            return statusText;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
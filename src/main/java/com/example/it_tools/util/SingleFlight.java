@@ -0,0 +1,97 @@
+package com.example.it_tools.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller runs the loader, everyone who
+ * arrives while it is running gets the same result (or the same exception). Nothing is remembered once
+ * the call finishes; put a cache in front for that ({@link RefreshingCache}).
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Runs the loader on the calling thread, or waits for the call already running for this key.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            shared.increment();
+            return await(existing);
+        }
+        return run(key, call, loader);
+    }
+
+    /**
+     * Starts the loader on the executor unless a call for this key is already running, in which case that
+     * call's future is returned. A rejected task completes the future exceptionally.
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> loader, Executor executor) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            shared.increment();
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(key, call, loader);
+                } catch (RuntimeException | Error e) {
+                    // Đã chuyển vào future, người gọi tự xử lý
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+        }
+        return call;
+    }
+
+    /**
+     * Calls that joined one already running instead of starting their own.
+     */
+    public long shared() {
+        return shared.sum();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V run(K key, CompletableFuture<V> call, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            // Ném lại đúng exception của loader (vd. RestClientException) cho mọi người chờ
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.it_tools.benchmark;
+
+import com.example.it_tools.dto.IbanParseResult;
+import com.example.it_tools.service.IbanParserService;
+import org.iban4j.Iban;
+import org.iban4j.IbanFormatException;
+import org.iban4j.IbanUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Previous /api/iban/parse path (regex normalize, validate, Iban.valueOf, regex grouping) against
+ * {@link IbanParserService}. Throughput per call plus allocation per call (gc.alloc.rate.norm, B/op).
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath com.example.it_tools.benchmark.IbanParsingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IbanParsingBenchmark {
+
+    @Param({"DE89 3704 0044 0532 0130 00", "gb82west12345698765432", "FR7630006000011234567890189", "DE89370400440532013001"})
+    private String input;
+
+    private IbanParserService service;
+
+    @Setup
+    public void setUp() {
+        service = new IbanParserService();
+    }
+
+    @Benchmark
+    public Map<String, Object> legacy() {
+        return legacyParse(input);
+    }
+
+    @Benchmark
+    public IbanParseResult singlePass() {
+        return service.parse(input);
+    }
+
+    // Bản sao logic cũ của IbanParserController.parseIban
+    static Map<String, Object> legacyParse(String ibanInput) {
+        try {
+            String normalizedIban = ibanInput.replaceAll("\\s+", "").toUpperCase();
+            IbanUtil.validate(normalizedIban);
+            Iban iban = Iban.valueOf(normalizedIban);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("isValid", true);
+            result.put("countryCode", iban.getCountryCode().name());
+            result.put("bban", iban.getBban());
+            result.put("friendlyFormat", normalizedIban.replaceAll("(.{4})(?!$)", "$1 ").trim());
+            result.put("compactFormat", normalizedIban);
+            return result;
+        } catch (IbanFormatException | IllegalArgumentException e) {
+            Map<String, Object> errorResult = new HashMap<>();
+            errorResult.put("isValid", false);
+            errorResult.put("error", "Invalid IBAN: " + e.getMessage());
+            return errorResult;
+        } catch (RuntimeException e) {
+            // Lỗi checksum/quốc gia từng rơi vào nhánh 500
+            return Map.of("isValid", false);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(IbanParsingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
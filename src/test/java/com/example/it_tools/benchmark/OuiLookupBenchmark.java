@@ -0,0 +1,94 @@
+package com.example.it_tools.benchmark;
+
+import com.example.it_tools.dto.MacVendor;
+import com.example.it_tools.service.OuiIndex;
+import com.example.it_tools.util.MacAddress;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline vendor lookup on an index the size of the IEEE registries (~35k MA-L, ~5k MA-M, ~6k MA-S blocks),
+ * from a MAC string (parse + lookup) and from an already parsed address. Average time per lookup.
+ * Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * "-Dexec.args=-cp %classpath com.example.it_tools.benchmark.OuiLookupBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OuiLookupBenchmark {
+    private static final int ADDRESSES = 1 << 12;
+
+    private OuiIndex index;
+    private String[] inputs;
+    private MacAddress[] parsed;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        Path file = Files.createTempFile("oui", ".csv");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("Registry,Assignment,Organization Name,Organization Address\n");
+            writeBlocks(writer, random, "MA-L", 6, 35_000);
+            writeBlocks(writer, random, "MA-M", 7, 5_000);
+            writeBlocks(writer, random, "MA-S", 9, 6_000);
+        }
+        index = OuiIndex.load(List.of(file));
+        Files.delete(file);
+
+        inputs = new String[ADDRESSES];
+        parsed = new MacAddress[ADDRESSES];
+        for (int i = 0; i < ADDRESSES; i++) {
+            inputs[i] = String.format("%012X", random.nextLong() & 0xFFFF_FFFF_FFFFL).replaceAll("(..)(?!$)", "$1:");
+            parsed[i] = MacAddress.parse(inputs[i]);
+        }
+    }
+
+    private static void writeBlocks(Writer writer, Random random, String registry, int hexDigits, int count) throws IOException {
+        long bound = 1L << (hexDigits * 4);
+        for (int i = 0; i < count; i++) {
+            String prefix = String.format("%0" + hexDigits + "X", Math.floorMod(random.nextLong(), bound));
+            writer.write(registry + "," + prefix + ",Vendor " + i + ",\"Street " + i + " City ST US 12345\"\n");
+        }
+    }
+
+    @Benchmark
+    public MacVendor parseAndLookup() {
+        return index.lookup(MacAddress.parse(inputs[next++ & (ADDRESSES - 1)]));
+    }
+
+    @Benchmark
+    public MacVendor lookup() {
+        return index.lookup(parsed[next++ & (ADDRESSES - 1)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OuiLookupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
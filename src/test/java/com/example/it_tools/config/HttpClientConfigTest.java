@@ -0,0 +1,193 @@
+package com.example.it_tools.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpClientConfigTest {
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    // Stub upstream: hành vi đổi theo từng test
+    private volatile int status = 200;
+    private volatile long delayMillis;
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/", this::handle);
+        server.start();
+        connectionManager = HttpClientConfig.connectionManager(10, 5, 300);
+        httpClient = HttpClientConfig.httpClient(connectionManager, 30);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        gate.countDown();
+        httpClient.close();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        inFlight.incrementAndGet();
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        try {
+            gate.await(5, TimeUnit.SECONDS);
+            Thread.sleep(delayMillis);
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/lookup";
+    }
+
+    private RestTemplate restTemplate(CircuitBreaker circuitBreaker, int maxConcurrentCalls, long readTimeoutMillis) {
+        return HttpClientConfig.restTemplate(new RestTemplateBuilder(), httpClient,
+                Duration.ofMillis(500), Duration.ofMillis(readTimeoutMillis),
+                HttpClientConfig.bulkhead(BulkheadRegistry.ofDefaults(), "stub", maxConcurrentCalls),
+                circuitBreaker);
+    }
+
+    private static CircuitBreaker circuitBreaker(int window) {
+        return CircuitBreaker.of("stub", CircuitBreakerConfig.custom()
+                .slidingWindowSize(window)
+                .minimumNumberOfCalls(window)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+    }
+
+    @Test
+    void sequentialCallsReuseOneKeptAliveConnection() {
+        RestTemplate restTemplate = restTemplate(circuitBreaker(10), 5, 1000);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("{\"ok\":true}", restTemplate.getForObject(url(), String.class));
+        }
+        assertEquals(5, requests.get());
+        assertEquals(1, clientPorts.size());
+        assertEquals(1, connectionManager.getTotalStats().getAvailable());
+    }
+
+    @Test
+    void slowUpstreamHitsReadTimeoutAndCountsAsFailure() {
+        delayMillis = 2000;
+        CircuitBreaker circuitBreaker = circuitBreaker(10);
+        RestTemplate restTemplate = restTemplate(circuitBreaker, 5, 200);
+
+        long start = System.nanoTime();
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url(), String.class));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1500));
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void circuitOpensAfterServerErrorsAndStopsCallingUpstream() {
+        status = 503;
+        CircuitBreaker circuitBreaker = circuitBreaker(4);
+        RestTemplate restTemplate = restTemplate(circuitBreaker, 5, 1000);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class, () -> restTemplate.getForObject(url(), String.class));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        ResourceAccessException rejected = assertThrows(ResourceAccessException.class,
+                () -> restTemplate.getForObject(url(), String.class));
+        assertTrue(rejected.getMessage().contains("OPEN"));
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() {
+        status = 404;
+        CircuitBreaker circuitBreaker = circuitBreaker(4);
+        RestTemplate restTemplate = restTemplate(circuitBreaker, 5, 1000);
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(Exception.class, () -> restTemplate.getForObject(url(), String.class));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(6, requests.get());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimitWithoutWaiting() throws Exception {
+        gate = new CountDownLatch(1);
+        RestTemplate restTemplate = restTemplate(circuitBreaker(10), 2, 5000);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = callers.submit(() -> restTemplate.getForObject(url(), String.class));
+            Future<String> second = callers.submit(() -> restTemplate.getForObject(url(), String.class));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (inFlight.get() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, inFlight.get());
+
+            long start = System.nanoTime();
+            ResourceAccessException rejected = assertThrows(ResourceAccessException.class,
+                    () -> restTemplate.getForObject(url(), String.class));
+            assertTrue(rejected.getMessage().contains("Too many concurrent calls"));
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+
+            gate.countDown();
+            assertEquals("{\"ok\":true}", first.get(5, TimeUnit.SECONDS));
+            assertEquals("{\"ok\":true}", second.get(5, TimeUnit.SECONDS));
+            assertEquals(2, requests.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
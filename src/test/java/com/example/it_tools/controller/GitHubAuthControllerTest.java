@@ -0,0 +1,59 @@
+package com.example.it_tools.controller;
+
+import com.example.it_tools.security.JwtUtil;
+import com.example.it_tools.service.CustomUserDetailsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GitHubAuthControllerTest {
+    private RestTemplate restTemplate;
+    private JwtUtil jwtUtil;
+    private GitHubAuthController controller;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        jwtUtil = mock(JwtUtil.class);
+        controller = new GitHubAuthController(jwtUtil, mock(CustomUserDetailsService.class), restTemplate);
+    }
+
+    @Test
+    void githubClientErrorIsUnauthorized() {
+        // Ví dụ: token bị thu hồi giữa lúc đổi code và gọi /user
+        when(restTemplate.exchange(eq("https://github.com/login/oauth/access_token"), eq(HttpMethod.POST), any(HttpEntity.class), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("access_token", "gho_x")));
+        when(restTemplate.exchange(eq("https://api.github.com/user"), eq(HttpMethod.GET), any(HttpEntity.class), eq(Map.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", null, null, null));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.githubLogin("code-1", new MockHttpServletResponse()).getStatusCode());
+        verifyNoInteractions(jwtUtil);
+    }
+
+    @Test
+    void rejectedCodeIsUnauthorizedAndGithubOutageIsUnavailable() {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(HttpEntity.class), eq(Map.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", null, null, null));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.githubLogin("code-1", new MockHttpServletResponse()).getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, controller.githubLogin("code-2", new MockHttpServletResponse()).getStatusCode());
+    }
+}
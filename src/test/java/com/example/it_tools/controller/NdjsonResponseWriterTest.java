@@ -0,0 +1,81 @@
+package com.example.it_tools.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonResponseWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void inputFailureEndsTheStreamWithAnErrorLine() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try (NdjsonResponseWriter writer = new NdjsonResponseWriter(response, objectMapper)) {
+            writer.write(Map.of("row", 1));
+            writer.abort(new UncheckedIOException(new IOException("Unexpected end of upload")));
+            assertFalse(writer.isBroken());
+        }
+
+        assertEquals("{\"row\":1}\n{\"error\":\"Batch aborted: Unexpected end of upload\"}\n", response.getContentAsString());
+    }
+
+    @Test
+    void clientDisconnectWritesNothingMoreAndClosesQuietly() throws IOException {
+        DisconnectedOutputStream out = new DisconnectedOutputStream();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return out;
+            }
+        };
+
+        NdjsonResponseWriter writer = new NdjsonResponseWriter(response, objectMapper);
+        // Lớn hơn buffer của generator để lần ghi thật sự chạm tới socket
+        UncheckedIOException failure = assertThrows(UncheckedIOException.class,
+                () -> writer.write(Map.of("row", "x".repeat(64 * 1024))));
+        assertTrue(writer.isBroken());
+        int attempts = out.attempts;
+
+        writer.abort(failure);
+        assertDoesNotThrow(writer::close);
+        assertEquals(attempts, out.attempts);
+    }
+
+    private static final class DisconnectedOutputStream extends ServletOutputStream {
+        int attempts;
+
+        @Override
+        public void write(int b) throws IOException {
+            attempts++;
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            attempts++;
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.it_tools.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolControllerTest {
+
+    @Test
+    void gzipIsServedOnlyWhenAcceptedWithANonZeroQValue() {
+        assertTrue(ToolController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ToolController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(ToolController.acceptsGzip("x-gzip"));
+        assertTrue(ToolController.acceptsGzip("*"));
+
+        assertFalse(ToolController.acceptsGzip(null));
+        assertFalse(ToolController.acceptsGzip("identity"));
+        assertFalse(ToolController.acceptsGzip("gzip;q=0"));
+        assertFalse(ToolController.acceptsGzip("br, gzip; q=0.000"));
+        // gzip nêu riêng thắng "*"
+        assertFalse(ToolController.acceptsGzip("*;q=1, gzip;q=0"));
+        assertTrue(ToolController.acceptsGzip("*;q=0, gzip"));
+        assertFalse(ToolController.acceptsGzip("*;q=0"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.it_tools.repository;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.util.Optional;
+
+/**
+ * Mongo for repository tests. A real server comes from MONGODB_TEST_URI or, when Docker is available,
+ * a throwaway mongo:7.0 container. Tests that only need the wire protocol fall back to an in-process
+ * server (mongo-java-server), which has no query planner and so cannot answer {@code explain}.
+ */
+final class MongoTestServer {
+    private static final String TEST_URI = System.getenv("MONGODB_TEST_URI");
+
+    private static MongoDBContainer container;
+    private static MongoServer inMemory;
+
+    private MongoTestServer() {
+    }
+
+    /** CI must provide a real server: there a missing one is a failure, not a skip. */
+    static boolean realServerRequired() {
+        return System.getenv("CI") != null;
+    }
+
+    static synchronized Optional<String> realServerUri() {
+        if (TEST_URI != null) {
+            return Optional.of(TEST_URI);
+        }
+        if (container == null && DockerClientFactory.instance().isDockerAvailable()) {
+            // Ryuk của Testcontainers dọn container khi JVM thoát
+            container = new MongoDBContainer("mongo:7.0");
+            container.start();
+        }
+        return container == null ? Optional.empty() : Optional.of(container.getReplicaSetUrl());
+    }
+
+    static synchronized String uri() {
+        Optional<String> real = realServerUri();
+        if (real.isPresent()) {
+            return real.get();
+        }
+        if (inMemory == null) {
+            inMemory = new MongoServer(new MemoryBackend());
+            Runtime.getRuntime().addShutdownHook(new Thread(inMemory::shutdownNow));
+            return inMemory.bindAndGetConnectionString();
+        }
+        return inMemory.getConnectionString();
+    }
+}
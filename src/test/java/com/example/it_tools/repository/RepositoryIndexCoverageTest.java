@@ -0,0 +1,197 @@
+package com.example.it_tools.repository;
+
+import com.example.it_tools.config.MongoIndexConfig;
+import com.example.it_tools.model.Tool;
+import com.example.it_tools.model.UserToolFavorite;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Every repository finder must be served by an index managed in {@link MongoIndexConfig}.
+ * The static check always runs; the explain-plan check needs a real server (see
+ * {@link MongoTestServer}) and fails under CI when none can be started.
+ */
+class RepositoryIndexCoverageTest {
+    private static MongoMappingContext mappingContext;
+    private static List<FinderQuery> finders;
+
+    @BeforeAll
+    static void collectFinders() throws ClassNotFoundException {
+        mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+
+        finders = new ArrayList<>();
+        for (Class<?> repository : repositoryInterfaces()) {
+            Class<?> domainType = AbstractRepositoryMetadata.getMetadata(repository).getDomainType();
+            for (Method method : repository.getDeclaredMethods()) {
+                if (method.isDefault() || method.isAnnotationPresent(org.springframework.data.mongodb.repository.Query.class)) {
+                    continue;
+                }
+                PartTree tree = new PartTree(method.getName(), domainType);
+                for (PartTree.OrPart orPart : tree) {
+                    List<String> fields = new ArrayList<>();
+                    for (Part part : orPart) {
+                        fields.add(mappingContext.getPersistentPropertyPath(part.getProperty())
+                                .toDotPath(MongoPersistentProperty::getFieldName));
+                    }
+                    finders.add(new FinderQuery(repository.getSimpleName() + "." + method.getName(), domainType, fields));
+                }
+            }
+        }
+
+        // Truy vấn viết tay trong các fragment *RepositoryCustomImpl
+        ObjectId userId = new ObjectId();
+        finders.add(FinderQuery.of("UserToolFavoriteRepository.findByUser",
+                UserToolFavorite.class, UserToolFavoriteRepositoryCustomImpl.byUser(userId)));
+        finders.add(FinderQuery.of("UserToolFavoriteRepository.findByUserAndToolName",
+                UserToolFavorite.class, UserToolFavoriteRepositoryCustomImpl.byUserAndTool(userId, "probe")));
+    }
+
+    @Test
+    void repositoryDomainTypesAreManaged() throws ClassNotFoundException {
+        for (Class<?> repository : repositoryInterfaces()) {
+            Class<?> domainType = AbstractRepositoryMetadata.getMetadata(repository).getDomainType();
+            assertTrue(MongoIndexConfig.INDEXED_ENTITIES.contains(domainType),
+                    domainType.getSimpleName() + " is queried by " + repository.getSimpleName() + " but not in MongoIndexConfig");
+        }
+    }
+
+    @Test
+    void everyFinderHasAnIndexOnItsLeadingField() {
+        assertFalse(finders.isEmpty());
+        for (FinderQuery finder : finders) {
+            // Index dùng được khi trường đầu tiên của nó nằm trong điều kiện bằng của truy vấn
+            boolean covered = indexKeys(finder.entity()).stream()
+                    .anyMatch(keys -> finder.fields().contains(keys.get(0)));
+            assertTrue(covered, finder.name() + " on " + finder.fields() + " has no usable index");
+        }
+    }
+
+    @Test
+    void everyToolFilterCombinationHasAnIndexServingFilterAndSort() {
+        List<String> filters = ToolRepositoryCustomImpl.FILTER_FIELDS;
+        List<List<String>> indexes = indexKeys(Tool.class);
+        for (int mask = 0; mask < 1 << filters.size(); mask++) {
+            Set<String> equality = new HashSet<>();
+            for (int i = 0; i < filters.size(); i++) {
+                if ((mask & 1 << i) != 0) {
+                    equality.add(filters.get(i));
+                }
+            }
+            // Các field lọc bằng đứng đầu (thứ tự bất kỳ), ngay sau là khóa sắp xếp (order, _id)
+            boolean served = indexes.stream().anyMatch(keys -> keys.size() == equality.size() + 2
+                    && equality.equals(new HashSet<>(keys.subList(0, equality.size())))
+                    && keys.subList(equality.size(), keys.size()).equals(List.of("order", "_id")));
+            assertTrue(served, "No index serves filter " + equality + " sorted by (order, _id)");
+        }
+    }
+
+    @Test
+    void explainPlansDoNotScanCollections() {
+        Optional<String> uri = MongoTestServer.realServerUri();
+        String missing = "explain needs a real Mongo: set MONGODB_TEST_URI or make Docker available";
+        if (MongoTestServer.realServerRequired()) {
+            assertTrue(uri.isPresent(), missing);
+        } else {
+            assumeTrue(uri.isPresent(), missing);
+        }
+        String databaseName = "it_tools_index_test_" + new ObjectId().toHexString();
+        try (MongoClient client = MongoClients.create(uri.get())) {
+            MongoTemplate template = new MongoTemplate(client, databaseName);
+            MongoDatabase database = client.getDatabase(databaseName);
+            try {
+                MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+                for (Class<?> entity : MongoIndexConfig.INDEXED_ENTITIES) {
+                    resolver.resolveIndexFor(entity).forEach(template.indexOps(entity)::ensureIndex);
+                }
+                for (FinderQuery finder : finders) {
+                    Document filter = new Document();
+                    finder.fields().forEach(field -> filter.put(field, "_id".equals(field) ? new ObjectId() : "probe"));
+                    Document explain = database.runCommand(new Document("explain",
+                            new Document("find", template.getCollectionName(finder.entity())).append("filter", filter))
+                            .append("verbosity", "queryPlanner"));
+                    Object winningPlan = ((Document) explain.get("queryPlanner")).get("winningPlan");
+                    assertFalse(containsStage(winningPlan, "COLLSCAN"),
+                            finder.name() + " falls back to a collection scan: " + winningPlan);
+                }
+            } finally {
+                database.drop();
+            }
+        }
+    }
+
+    private static List<List<String>> indexKeys(Class<?> entity) {
+        List<List<String>> keys = new ArrayList<>();
+        keys.add(List.of("_id"));
+        for (IndexDefinition index : new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(entity)) {
+            keys.add(new ArrayList<>(index.getIndexKeys().keySet()));
+        }
+        return keys;
+    }
+
+    private static List<Class<?>> repositoryInterfaces() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        List<Class<?>> repositories = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(RepositoryIndexCoverageTest.class.getPackageName())) {
+            repositories.add(Class.forName(candidate.getBeanClassName()));
+        }
+        return repositories;
+    }
+
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (plan instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+
+    private record FinderQuery(String name, Class<?> entity, List<String> fields) {
+        static FinderQuery of(String name, Class<?> entity, Query query) {
+            return new FinderQuery(name, entity, new ArrayList<>(query.getQueryObject().keySet()));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.it_tools.repository;
+
+import com.example.it_tools.dto.ToolBulkOperation;
+import com.example.it_tools.dto.ToolBulkResult;
+import com.example.it_tools.dto.ToolBulkResult.Status;
+import com.example.it_tools.model.Tool;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-operation results of {@link ToolRepositoryCustomImpl#applyBulk} derived from the bulk write counts,
+ * with an {@code _id} lookup only where the counts cannot tell the operations apart.
+ */
+class ToolBulkWriteTest {
+    private final String existing = new ObjectId().toHexString();
+    private final String missing = new ObjectId().toHexString();
+    private final String removed = new ObjectId().toHexString();
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private ToolRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Tool.class)).thenReturn(bulk);
+        when(mongoTemplate.getCollectionName(Tool.class)).thenReturn("tools");
+        repository = new ToolRepositoryCustomImpl(mongoTemplate);
+    }
+
+    private static ToolBulkOperation update(String id) {
+        ToolBulkOperation operation = new ToolBulkOperation();
+        operation.setToolId(id);
+        operation.setEnabled(false);
+        return operation;
+    }
+
+    private static ToolBulkOperation delete(String id) {
+        ToolBulkOperation operation = new ToolBulkOperation();
+        operation.setToolId(id);
+        operation.setDelete(true);
+        return operation;
+    }
+
+    private static List<Status> statuses(List<ToolBulkResult> results) {
+        return results.stream().map(ToolBulkResult::getStatus).toList();
+    }
+
+    private void stored(String... ids) {
+        List<Document> documents = Arrays.stream(ids).map(id -> new Document("_id", new ObjectId(id))).toList();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("tools"))).thenReturn(documents);
+    }
+
+    @Test
+    void fullyMatchedUpdatesNeedNoExtraQuery() {
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+        List<ToolBulkResult> results = repository.applyBulk(List.of(update(existing), update("not-an-id")));
+
+        assertEquals(List.of(Status.UPDATED, Status.INVALID), statuses(results));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Document.class), any(String.class));
+    }
+
+    @Test
+    void deleteTargetsAreLookedUpOnceBeforeTheWrite() {
+        stored(removed);
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 1, 1, List.of(), List.of()));
+
+        List<ToolBulkResult> results = repository.applyBulk(List.of(update(existing), delete(removed)));
+
+        assertEquals(List.of(Status.UPDATED, Status.DELETED), statuses(results));
+        InOrder inOrder = inOrder(mongoTemplate, bulk);
+        inOrder.verify(mongoTemplate).find(any(Query.class), eq(Document.class), eq("tools"));
+        inOrder.verify(bulk).execute();
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Document.class), any(String.class));
+    }
+
+    @Test
+    void unmatchedOperationsAreReportedFromTheWriteCounts() {
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+        stored(existing);
+
+        List<ToolBulkResult> results = repository.applyBulk(
+                List.of(update(existing), update(missing), delete(removed)));
+
+        // Không xóa được gì: mọi thao tác xóa là NOT_FOUND
+        assertEquals(List.of(Status.UPDATED, Status.NOT_FOUND, Status.NOT_FOUND), statuses(results));
+    }
+
+    @Test
+    void partialDeleteReportsEachIdFromTheLookupBeforeTheWrite() {
+        // "removed" có thể chưa có trong catalog trong bộ nhớ (vừa được tạo ở instance khác): chỉ tin Mongo
+        stored(removed);
+        when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 1, 0, List.of(), List.of()));
+
+        List<ToolBulkResult> results = repository.applyBulk(
+                List.of(delete(missing), delete(removed), delete(existing)));
+
+        assertEquals(List.of(Status.NOT_FOUND, Status.DELETED, Status.NOT_FOUND), statuses(results));
+    }
+
+    @Test
+    void writeErrorsAreMappedBackToTheirRequestIndex() {
+        BulkWriteResult partial = BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of());
+        BulkWriteError error = new BulkWriteError(121, "Document failed validation", new BsonDocument(), 1);
+        when(bulk.execute()).thenThrow(new BulkOperationException("bulk failed",
+                new MongoBulkWriteException(partial, List.of(error), null, new ServerAddress(), Set.of())));
+
+        List<ToolBulkResult> results = repository.applyBulk(
+                List.of(update("bad"), update(existing), update(missing)));
+
+        assertEquals(List.of(Status.INVALID, Status.UPDATED, Status.FAILED), statuses(results));
+        assertEquals("Document failed validation", results.get(2).getError());
+    }
+}
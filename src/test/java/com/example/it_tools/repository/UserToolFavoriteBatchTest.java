@@ -0,0 +1,142 @@
+package com.example.it_tools.repository;
+
+import com.example.it_tools.controller.FavoriteController;
+import com.example.it_tools.model.Role;
+import com.example.it_tools.model.User;
+import com.example.it_tools.model.UserToolFavorite;
+import com.example.it_tools.repository.UserToolFavoriteRepositoryCustom.FavoriteBatchCounts;
+import com.example.it_tools.service.FavoriteService;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link UserToolFavoriteRepositoryCustomImpl#applyBatch} and {@code POST /api/favorites/batch} against Mongo
+ * (see {@link MongoTestServer}): the upsert keyed on {@code user.$id} must store a {@code user} DBRef that
+ * reads back through the {@code @DBRef} mapping like documents saved by the repository.
+ */
+class UserToolFavoriteBatchTest {
+    private MongoClient client;
+    private MongoTemplate template;
+    private UserToolFavoriteRepositoryCustomImpl favorites;
+    private UserToolFavoriteRepository favoriteRepository;
+    private FavoriteController controller;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        client = MongoClients.create(MongoTestServer.uri());
+        template = new MongoTemplate(client, "it_tools_favorites_test_" + new ObjectId().toHexString());
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(
+                (MongoMappingContext) template.getConverter().getMappingContext());
+        resolver.resolveIndexFor(UserToolFavorite.class).forEach(template.indexOps(UserToolFavorite.class)::ensureIndex);
+
+        user = new User(null, "alice", "alice@example.com", "", false, Role.USER);
+        template.insert(user);
+
+        favorites = new UserToolFavoriteRepositoryCustomImpl(template);
+        // Repository thật của Spring Data trên cùng MongoTemplate, gồm cả fragment viết tay
+        favoriteRepository = new MongoRepositoryFactory(template)
+                .getRepository(UserToolFavoriteRepository.class, RepositoryFragments.just(favorites));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        controller = new FavoriteController(new FavoriteService(favoriteRepository, userRepository, 100, 600), userRepository);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getUsername(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        template.getDb().drop();
+        client.close();
+    }
+
+    private Set<String> storedNames() {
+        return favoriteRepository.findByUser(user).stream().map(UserToolFavorite::getToolName).collect(Collectors.toSet());
+    }
+
+    @Test
+    void addReAddAndRemoveReportOnlyRealChanges() {
+        assertEquals(new FavoriteBatchCounts(2, 0), favorites.applyBatch(user.getId(), List.of("Bcrypt", "UUID"), List.of()));
+        // Thêm lại tool đã có là no-op
+        assertEquals(new FavoriteBatchCounts(0, 0), favorites.applyBatch(user.getId(), List.of("Bcrypt"), List.of()));
+        assertEquals(new FavoriteBatchCounts(1, 1),
+                favorites.applyBatch(user.getId(), List.of("Base64"), List.of("UUID", "Never added")));
+
+        assertEquals(Set.of("Bcrypt", "Base64"), storedNames());
+        assertEquals(2, template.count(new Query(), UserToolFavorite.class));
+    }
+
+    @Test
+    void upsertedFavoriteReadsBackThroughTheDbRefMapping() {
+        favorites.applyBatch(user.getId(), List.of("Bcrypt"), List.of());
+
+        Document stored = template.getCollection(template.getCollectionName(UserToolFavorite.class)).find().first();
+        assertNotNull(stored);
+        DBRef ref = assertInstanceOf(DBRef.class, stored.get("user"));
+        assertEquals(template.getCollectionName(User.class), ref.getCollectionName());
+        assertEquals(new ObjectId(user.getId()), ref.getId());
+
+        UserToolFavorite favorite = favoriteRepository.findByUserAndToolName(user, "Bcrypt").orElseThrow();
+        assertEquals(user.getId(), favorite.getUser().getId());
+        assertEquals("alice", favorite.getUser().getUsername());
+        assertNotNull(favorite.getCreatedAt());
+    }
+
+    @Test
+    void batchEndpointAppliesChangesAndReturnsCounts() {
+        favorites.applyBatch(user.getId(), List.of("UUID"), List.of());
+
+        ResponseEntity<?> response = controller.applyBatch(Map.of("add", List.of("Bcrypt", "Bcrypt"), "remove", List.of("UUID")));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("added", 1, "removed", 1), response.getBody());
+        assertEquals(Set.of("Bcrypt"), storedNames());
+    }
+
+    @Test
+    void batchEndpointRejectsInvalidRequestsWithoutWriting() {
+        assertBadRequest(Map.of("add", Collections.nCopies(501, "Bcrypt")), "At most 500 changes per batch");
+        assertBadRequest(Map.of("add", List.of("Bcrypt", " ")), "Tool name is required");
+        assertBadRequest(Map.of("add", List.of("Bcrypt"), "remove", List.of("Bcrypt")), "A tool cannot be both added and removed");
+
+        assertEquals(Set.of(), storedNames());
+    }
+
+    private void assertBadRequest(Map<String, List<String>> request, String message) {
+        ResponseEntity<?> response = controller.applyBatch(request);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Map.of("message", message), response.getBody());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.it_tools.security;
+
+import com.example.it_tools.service.TokenRevocationService;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtFilterTest {
+    private JwtUtil jwtUtil;
+    private TokenRevocationService revocationService;
+    private JwtFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = mock(JwtUtil.class);
+        revocationService = mock(TokenRevocationService.class);
+        filter = new JwtFilter(jwtUtil, revocationService, 100);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static JwtPrincipal principal(Instant expiresAt) {
+        return new JwtPrincipal("alice", "64f0c0ffee0000000000abcd", false, List.of(new SimpleGrantedAuthority("ROLE_USER")),
+                "jti-1", Instant.now(), expiresAt);
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Authorization", "Bearer token-1");
+        return request;
+    }
+
+    // Mỗi request chạy trên một security context trống như một luồng servlet mới
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void verifiedTokenIsServedFromCacheOnTheNextRequest() throws Exception {
+        JwtPrincipal principal = principal(Instant.now().plusSeconds(3600));
+        when(jwtUtil.verify("token-1")).thenReturn(principal);
+
+        send(request("/api/favorites"));
+        MockHttpServletResponse response = send(request("/api/favorites"));
+
+        assertEquals(200, response.getStatus());
+        assertSame(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(jwtUtil, times(1)).verify("token-1");
+    }
+
+    @Test
+    void cachedTokenExpiresWithItsExpClaim() throws Exception {
+        when(jwtUtil.verify("token-1"))
+                .thenReturn(principal(Instant.now().plusMillis(200)))
+                .thenThrow(new ExpiredJwtException(null, null, "expired"));
+
+        send(request("/api/favorites"));
+        Thread.sleep(300);
+        MockHttpServletResponse response = send(request("/api/favorites"));
+
+        // Hết exp thì phải parse lại, không được trả principal cũ từ cache
+        assertEquals(401, response.getStatus());
+        assertEquals("Token expired", response.getErrorMessage());
+        verify(jwtUtil, times(2)).verify("token-1");
+    }
+
+    @Test
+    void revocationIsCheckedEvenOnACacheHit() throws Exception {
+        when(jwtUtil.verify("token-1")).thenReturn(principal(Instant.now().plusSeconds(3600)));
+        when(revocationService.isRevoked(any())).thenReturn(false, true);
+
+        assertEquals(200, send(request("/api/favorites")).getStatus());
+        MockHttpServletResponse response = send(request("/api/favorites"));
+
+        assertEquals(401, response.getStatus());
+        assertEquals("Token revoked", response.getErrorMessage());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtUtil, times(1)).verify("token-1");
+        verify(revocationService, times(2)).isRevoked(any());
+    }
+
+    @Test
+    void publicPathsSkipTheFilter() {
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/auth/login")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/auth/github/callback")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/iban/batch")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/error")));
+
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/favorites")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/tools")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/auth/logout")));
+
+        // Mẫu so với đường dẫn sau context path
+        MockHttpServletRequest underContext = new MockHttpServletRequest("GET", "/app/api/phone/parse");
+        underContext.setContextPath("/app");
+        assertTrue(filter.shouldNotFilter(underContext));
+    }
+
+    @Test
+    void publicPathIsNotAuthenticatedEvenWithAToken() throws Exception {
+        MockHttpServletResponse response = send(request("/api/email/parse"));
+
+        assertEquals(200, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtUtil, never()).verify(anyString());
+    }
+
+    @Test
+    void invalidTokenContinuesUnauthenticated() throws Exception {
+        when(jwtUtil.verify("token-1")).thenThrow(new MalformedJwtException("bad"));
+
+        MockHttpServletResponse response = send(request("/api/favorites"));
+
+        assertEquals(200, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
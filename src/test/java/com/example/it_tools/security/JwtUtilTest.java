@@ -0,0 +1,107 @@
+package com.example.it_tools.security;
+
+import com.example.it_tools.model.Role;
+import com.example.it_tools.model.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    static JwtUtil jwtUtil(long expirationMillis) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", expirationMillis);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    static UserPrincipal principal(String id, String username, boolean premium, Role role) {
+        return new UserPrincipal(new User(id, username, username + "@example.com", "", premium, role));
+    }
+
+    @Test
+    void generatedTokenVerifiesBackToTheSameCaller() {
+        JwtUtil jwtUtil = jwtUtil(Duration.ofHours(1).toMillis());
+        Instant before = Instant.now().minusSeconds(1);
+
+        JwtPrincipal verified = jwtUtil.verify(jwtUtil.generateToken(principal("64f0c0ffee0000000000abcd", "alice", true, Role.ADMIN)));
+
+        assertEquals("alice", verified.getUsername());
+        assertEquals("64f0c0ffee0000000000abcd", verified.getUserId());
+        assertTrue(verified.isPremium());
+        assertEquals(List.of("ROLE_ADMIN"), verified.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertNotNull(verified.getTokenId());
+        assertFalse(verified.getIssuedAt().isBefore(before));
+        assertTrue(verified.getExpiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(59))));
+    }
+
+    @Test
+    void nonPremiumUserStaysNonPremiumAndTokensGetDistinctIds() {
+        JwtUtil jwtUtil = jwtUtil(Duration.ofHours(1).toMillis());
+        UserPrincipal bob = principal("64f0c0ffee0000000000beef", "bob", false, Role.USER);
+
+        JwtPrincipal first = jwtUtil.verify(jwtUtil.generateToken(bob));
+        JwtPrincipal second = jwtUtil.verify(jwtUtil.generateToken(bob));
+
+        assertFalse(first.isPremium());
+        assertEquals(List.of("ROLE_USER"), first.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertNotEquals(first.getTokenId(), second.getTokenId());
+    }
+
+    @Test
+    void tokenWithoutIdClaimsVerifiesAsLegacyNonPremium() {
+        JwtUtil jwtUtil = jwtUtil(Duration.ofHours(1).toMillis());
+        // Token cũ: phát hành trước khi có claim uid / premium
+        String token = jwtUtil.generateToken(org.springframework.security.core.userdetails.User
+                .withUsername("carol").password("").roles("USER").build());
+
+        JwtPrincipal verified = jwtUtil.verify(token);
+
+        assertEquals("carol", verified.getUsername());
+        assertNull(verified.getUserId());
+        assertFalse(verified.isPremium());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        JwtUtil jwtUtil = jwtUtil(-Duration.ofMinutes(1).toMillis());
+        String token = jwtUtil.generateToken(principal("64f0c0ffee0000000000abcd", "alice", false, Role.USER));
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void tamperedOrForeignTokenIsRejected() {
+        JwtUtil jwtUtil = jwtUtil(Duration.ofHours(1).toMillis());
+        String token = jwtUtil.generateToken(principal("64f0c0ffee0000000000abcd", "alice", false, Role.USER));
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"alice\",\"roles\":[\"ROLE_ADMIN\"]}".getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(forged));
+        assertThrows(JwtException.class, () -> jwtUtil.verify("not-a-jwt"));
+
+        JwtUtil otherKey = jwtUtil(Duration.ofHours(1).toMillis());
+        ReflectionTestUtils.setField(otherKey, "SECRET_KEY", Base64.getEncoder().encodeToString("x".repeat(32).getBytes(StandardCharsets.UTF_8)));
+        otherKey.init();
+        assertThrows(JwtException.class, () -> otherKey.verify(token));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.it_tools.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    @Test
+    void fullQueueIsRejectedWithServiceUnavailable() throws Exception {
+        // Một luồng băm, hàng đợi một chỗ: một việc đang chạy + một việc chờ là đầy
+        PasswordHasher hasher = new PasswordHasher(4, 1, 1, 5000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> running = callers.submit(() -> hasher.submit(() -> release.await(5, TimeUnit.SECONDS)));
+            Future<?> queued = callers.submit(() -> hasher.submit(() -> release.await(5, TimeUnit.SECONDS)));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (hasher.queued() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                    () -> hasher.encode("secret"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatusCode());
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+            // Hàng đợi trống lại thì nhận việc bình thường
+            assertTrue(hasher.matches("secret", hasher.encode("secret")));
+        } finally {
+            callers.shutdownNow();
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void hashesWithAnotherCostNeedRehash() {
+        PasswordHasher hasher = new PasswordHasher(4, 1, 1, 5000);
+        try {
+            assertFalse(hasher.needsRehash(hasher.encode("secret")));
+            assertTrue(hasher.needsRehash("$2a$10$abcdefghijklmnopqrstuv"));
+            assertTrue(hasher.needsRehash("plain-text"));
+            assertTrue(hasher.needsRehash(null));
+        } finally {
+            hasher.shutdown();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.LoginRequest;
+import com.example.it_tools.model.Role;
+import com.example.it_tools.model.User;
+import com.example.it_tools.repository.UserRepository;
+import com.example.it_tools.security.JwtUtil;
+import com.example.it_tools.security.PasswordHasher;
+import com.example.it_tools.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+    private UserRepository repository;
+    private CustomUserDetailsService userDetailsService;
+    private PasswordHasher hasher;
+    private AuthService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserRepository.class);
+        userDetailsService = mock(CustomUserDetailsService.class);
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.generateToken(any())).thenReturn("token");
+        hasher = new PasswordHasher(4, 2, 4, 5000);
+        service = new AuthService(repository, jwtUtil, userDetailsService, hasher);
+    }
+
+    private User cachedUser(String hash) {
+        User user = new User("u1", "alice", "alice@example.com", hash, false, Role.USER);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new UserPrincipal(user));
+        return user;
+    }
+
+    private static LoginRequest login() {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("alice");
+        request.setPassword("secret");
+        return request;
+    }
+
+    @Test
+    void rehashWritesOnlyThePasswordAndEvictsTheCachedUser() {
+        // Hash cost 5 trong khi cấu hình là 4: phải băm lại
+        String oldHash = new BCryptPasswordEncoder(5).encode("secret");
+        User cached = cachedUser(oldHash);
+
+        assertEquals("token", service.login(login()).getToken());
+
+        verify(repository).updatePassword(eq("u1"), argThat(hash -> hash.startsWith("$2a$04$")));
+        verify(userDetailsService).evict("alice");
+        verify(repository, never()).save(any());
+        // Bản trong cache không bị sửa (và không bị ghi ngược lại Mongo)
+        assertEquals(oldHash, cached.getPassword());
+    }
+
+    @Test
+    void currentCostIsNotRehashed() {
+        cachedUser(new BCryptPasswordEncoder(4).encode("secret"));
+
+        service.login(login());
+
+        verify(repository, never()).updatePassword(anyString(), anyString());
+        verify(userDetailsService, never()).evict(anyString());
+    }
+}
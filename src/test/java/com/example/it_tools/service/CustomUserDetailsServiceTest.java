@@ -0,0 +1,72 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.model.User;
+import com.example.it_tools.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomUserDetailsServiceTest {
+    private UserRepository repository;
+    private CustomUserDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserRepository.class);
+        when(repository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        service = new CustomUserDetailsService(repository, 100, 300);
+    }
+
+    private void taken(String... usernames) {
+        Set<String> names = Set.of(usernames);
+        when(repository.existsByUsername(anyString())).thenAnswer(invocation -> names.contains(invocation.getArgument(0)));
+    }
+
+    @Test
+    void displayNameIsUsedWhenFree() {
+        taken();
+
+        assertEquals("Nguyen Van A", service.registerIfNotExists("a@example.com", "Nguyen Van A", "nguyenva").getUsername());
+    }
+
+    @Test
+    void takenDisplayNameFallsBackToLoginThenSuffix() {
+        taken("Nguyen Van A");
+        assertEquals("nguyenva", service.registerIfNotExists("a@example.com", "Nguyen Van A", "nguyenva").getUsername());
+
+        taken("Nguyen Van A", "nguyenva", "Nguyen Van A-2");
+        assertEquals("Nguyen Van A-3", service.registerIfNotExists("b@example.com", "Nguyen Van A", "nguyenva").getUsername());
+    }
+
+    @Test
+    void lostRaceOnUsernameTriesTheNextCandidate() {
+        taken();
+        when(repository.save(any()))
+                .thenThrow(new DuplicateKeyException("E11000 username_idx"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals("nguyenva", service.registerIfNotExists("a@example.com", "Nguyen Van A", "nguyenva").getUsername());
+    }
+
+    @Test
+    void existingEmailReturnsTheStoredUser() {
+        User existing = new User();
+        when(repository.findByEmail("a@example.com")).thenReturn(Optional.of(existing));
+
+        assertSame(existing, service.registerIfNotExists("a@example.com", "Nguyen Van A", "nguyenva"));
+        verify(repository, never()).save(any());
+    }
+}
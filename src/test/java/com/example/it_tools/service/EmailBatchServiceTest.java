@@ -0,0 +1,120 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.EmailBatchResult;
+import com.example.it_tools.dto.EmailBatchSummary;
+import com.example.it_tools.service.EmailBatchService.BatchRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailBatchServiceTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final MxResolver mxResolver = mock(MxResolver.class);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Tra MX giả: trả lời sau 20ms, chỉ domain "example.com" có MX
+    private void slowResolver(AtomicInteger inFlight, AtomicInteger maxInFlight) {
+        when(mxResolver.hasMx(anyString())).thenAnswer(invocation -> {
+            String domain = invocation.getArgument(0);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return domain.equals("example.com");
+            }, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+        });
+    }
+
+    @Test
+    void eachDistinctDomainIsResolvedOnce() {
+        slowResolver(new AtomicInteger(), new AtomicInteger());
+        EmailBatchService service = new EmailBatchService(new EmailService(mxResolver), mxResolver, executor, 16, 4, 64, 1000);
+        List<BatchRow> rows = new ArrayList<>();
+        for (long i = 1; i <= 1000; i++) {
+            String domain = i % 2 == 0 ? "example.com" : i % 3 == 0 ? "EXAMPLE.com" : "nomx.test";
+            rows.add(new BatchRow(i, "user" + i + "@" + domain, null));
+        }
+        rows.add(new BatchRow(1001, "not-an-address", null));
+        rows.add(new BatchRow(1002, null, null));
+        rows.add(new BatchRow(1003, "{}", "Malformed JSON line"));
+
+        List<EmailBatchResult> results = new ArrayList<>();
+        EmailBatchSummary summary = service.validate(rows.iterator(), results::add);
+
+        verify(mxResolver, times(1)).hasMx("example.com");
+        verify(mxResolver, times(1)).hasMx("nomx.test");
+        assertEquals(new EmailBatchSummary(1003, 1000, 3, 667, 333, 0, 2), summary);
+
+        results.sort(Comparator.comparingLong(EmailBatchResult::row));
+        assertEquals(LongStream.rangeClosed(1, 1003).boxed().toList(), results.stream().map(EmailBatchResult::row).toList());
+        assertTrue(results.get(1).hasMXRecord());
+        assertEquals("example.com", results.get(1).domain());
+        assertFalse(results.get(1000).valid());
+        assertNull(results.get(1000).hasMXRecord());
+        assertEquals("Email is required", results.get(1001).error());
+        assertEquals("Malformed JSON line", results.get(1002).error());
+    }
+
+    @Test
+    void failedLookupIsAnErrorPerRowAndIsNotRemembered() {
+        AtomicInteger calls = new AtomicInteger();
+        // Lần tra đầu không có câu trả lời (hàng đợi đầy), lần sau trả lời bình thường
+        when(mxResolver.hasMx("busy.test")).thenAnswer(invocation -> calls.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(new MxResolver.LookupFailedException("MX resolver busy", null))
+                : CompletableFuture.completedFuture(true));
+        EmailBatchService service = new EmailBatchService(new EmailService(mxResolver), mxResolver, executor, 1, 1, 64, 1000);
+        List<BatchRow> rows = List.of(new BatchRow(1, "a@busy.test", null), new BatchRow(2, "b@busy.test", null));
+
+        List<EmailBatchResult> results = new ArrayList<>();
+        EmailBatchSummary summary = service.validate(rows.iterator(), results::add);
+
+        results.sort(Comparator.comparingLong(EmailBatchResult::row));
+        assertTrue(results.get(0).valid());
+        assertNull(results.get(0).hasMXRecord());
+        assertEquals(EmailBatchService.MX_FAILED + "MX resolver busy", results.get(0).error());
+        assertTrue(results.get(1).hasMXRecord());
+        assertNull(results.get(1).error());
+        assertEquals(new EmailBatchSummary(2, 2, 0, 1, 0, 1, 2), summary);
+    }
+
+    @Test
+    void lookupsInFlightAreCappedPerRequest() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        slowResolver(inFlight, maxInFlight);
+        EmailBatchService service = new EmailBatchService(new EmailService(mxResolver), mxResolver, executor, 8, 2, 3, 1000);
+        List<BatchRow> rows = new ArrayList<>();
+        for (long i = 1; i <= 40; i++) {
+            rows.add(new BatchRow(i, "a@d" + i + ".test", null));
+        }
+
+        List<EmailBatchResult> results = new ArrayList<>();
+        EmailBatchSummary summary = service.validate(rows.iterator(), results::add);
+
+        assertEquals(40, results.size());
+        assertEquals(40, summary.domains());
+        assertTrue(maxInFlight.get() <= 3, "max in flight " + maxInFlight.get());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.model.Role;
+import com.example.it_tools.model.User;
+import com.example.it_tools.model.UserToolFavorite;
+import com.example.it_tools.repository.UserRepository;
+import com.example.it_tools.repository.UserToolFavoriteRepository;
+import com.example.it_tools.repository.UserToolFavoriteRepositoryCustom.FavoriteBatchCounts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FavoriteServiceTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final User user = new User("64f0c0ffee0000000000abcd", "alice", "alice@example.com", "", false, Role.USER);
+    private UserToolFavoriteRepository favoriteRepository;
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository = mock(UserToolFavoriteRepository.class);
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(favoriteRepository.findByUserAndToolName(any(), any())).thenReturn(Optional.empty());
+        when(favoriteRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private FavoriteService service(long ttlSeconds) {
+        return new FavoriteService(favoriteRepository, userRepository, 100, ttlSeconds);
+    }
+
+    private UserToolFavorite favorite(String toolName, int minute) {
+        return new UserToolFavorite(null, user, toolName, T0.plusMinutes(minute));
+    }
+
+    @Test
+    void favoritesAreListedOldestFirstWhateverTheStoredOrder() {
+        when(favoriteRepository.findByUser(user)).thenReturn(List.of(favorite("UUID", 2), favorite("Bcrypt", 0), favorite("Base64", 1)));
+
+        assertEquals(List.of("Bcrypt", "Base64", "UUID"), service(600).getUserFavorites(user.getId()));
+    }
+
+    @Test
+    void writesUpdateTheCachedListWithoutReloading() {
+        when(favoriteRepository.findByUser(user)).thenReturn(List.of(favorite("Bcrypt", 0), favorite("UUID", 1)));
+        when(favoriteRepository.applyBatch(eq(user.getId()), anyCollection(), anyCollection())).thenReturn(new FavoriteBatchCounts(1, 1));
+        FavoriteService service = service(600);
+        service.getUserFavorites(user.getId());
+
+        service.addFavorite(user.getId(), "Base64");
+        service.removeFavorite(user.getId(), "Bcrypt");
+        service.applyBatch(user.getId(), List.of("JSON Formatter", "UUID"), List.of("Base64"));
+
+        List<String> favorites = service.getUserFavorites(user.getId());
+        assertEquals(List.of("UUID", "JSON Formatter"), favorites);
+        assertTrue(service.isFavorite(user.getId(), "JSON Formatter"));
+        verify(favoriteRepository, times(1)).findByUser(user);
+        // Bản trong cache là bất biến: người gọi không sửa được
+        assertThrows(UnsupportedOperationException.class, () -> favorites.add("Bcrypt"));
+    }
+
+    @Test
+    void cachedListIsReloadedAfterTheTtl() throws InterruptedException {
+        when(favoriteRepository.findByUser(user))
+                .thenReturn(List.of(favorite("Bcrypt", 0)))
+                .thenReturn(List.of(favorite("Bcrypt", 0), favorite("UUID", 1)));
+        FavoriteService service = service(1);
+
+        assertEquals(List.of("Bcrypt"), service.getUserFavorites(user.getId()));
+        assertEquals(List.of("Bcrypt"), service.getUserFavorites(user.getId()));
+        Thread.sleep(1_100);
+
+        // Favorite thêm từ instance khác hiện ra sau TTL
+        assertEquals(List.of("Bcrypt", "UUID"), service.getUserFavorites(user.getId()));
+        verify(favoriteRepository, times(2)).findByUser(user);
+    }
+}
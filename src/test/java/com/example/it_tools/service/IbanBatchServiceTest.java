@@ -0,0 +1,87 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.IbanBatchSummary;
+import com.example.it_tools.dto.IbanLineResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IbanBatchServiceTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    // Chunk 2 dòng để kết quả đi qua nhiều task song song
+    private final IbanBatchService service = new IbanBatchService(new IbanParserService(), executor, 2, 3);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private IbanBatchSummary validate(String content, int column, List<IbanLineResult> sink) {
+        return service.validate(
+                Channels.newChannel(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))),
+                column, sink::add);
+    }
+
+    @Test
+    void csvWithHeaderIsValidatedPerLineWithSummary() {
+        String csv = """
+                name;IBAN;amount
+                Alice;de89 3704 0044 0532 0130 00;10
+
+                Bob;"GB82 WEST 1234 5698 7654 32";20
+                Carol;DE89370400440532013001;30
+                Dave;XX00;40
+                Eve
+                """;
+        List<IbanLineResult> results = new ArrayList<>();
+        IbanBatchSummary summary = validate(csv, 1, results);
+
+        results.sort(Comparator.comparingLong(IbanLineResult::line));
+        assertEquals(List.of(2L, 4L, 5L, 6L, 7L), results.stream().map(IbanLineResult::line).toList());
+        assertTrue(results.get(0).result().isValid());
+        assertEquals("GB82 WEST 1234 5698 7654 32", results.get(1).input());
+        assertEquals("INVALID_CHECK_DIGIT", results.get(2).result().errorType());
+        assertEquals("MISSING_COLUMN", results.get(4).result().errorType());
+
+        assertEquals(5, summary.total());
+        assertEquals(2, summary.valid());
+        assertEquals(3, summary.invalid());
+        assertEquals(new IbanBatchSummary.CountryCount(1, 1), summary.byCountry().get("DE"));
+        assertEquals(new IbanBatchSummary.CountryCount(1, 0), summary.byCountry().get("GB"));
+        assertEquals(1L, summary.byErrorType().get("INVALID_CHECK_DIGIT"));
+        assertEquals(1L, summary.byErrorType().get("MISSING_COLUMN"));
+        assertEquals(3L, summary.byErrorType().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void plainTextHasOneIbanPerLine() {
+        List<IbanLineResult> results = new ArrayList<>();
+        IbanBatchSummary summary = validate("NO9386011117947\nnot an iban\n", 0, results);
+
+        assertEquals(2, summary.total());
+        // Dòng sai vẫn được tính theo tiền tố quốc gia ("NOTANIBAN" -> NO)
+        assertEquals(Map.of("NO", new IbanBatchSummary.CountryCount(1, 1)), summary.byCountry());
+        assertFalse(results.stream().filter(r -> r.line() == 2).findFirst().orElseThrow().result().isValid());
+    }
+
+    @Test
+    void headerDetectionKeepsIbanShapedFirstLine() {
+        assertTrue(IbanBatchService.isHeader("Name,IBAN", ',', 1));
+        assertFalse(IbanBatchService.isHeader("x,DE89370400440532013000", ',', 1));
+        assertEquals("DE", IbanBatchService.countryPrefix("de89"));
+        assertEquals(IbanBatchService.UNKNOWN_COUNTRY, IbanBatchService.countryPrefix("1234"));
+    }
+}
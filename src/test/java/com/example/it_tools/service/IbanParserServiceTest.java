@@ -0,0 +1,49 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.IbanParseResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IbanParserServiceTest {
+    private final IbanParserService service = new IbanParserService();
+
+    @Test
+    void normalizesAndGroupsLikeTheRegexPath() {
+        String[] inputs = {"DE89 3704 0044 0532 0130 00", " gb82\twest1234\n5698765432 ", "NO9386011117947", "AB", "", "ab c"};
+        for (String input : inputs) {
+            String expected = input.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+            assertEquals(expected, IbanParserService.normalize(input));
+            assertEquals(expected.replaceAll("(.{4})(?!$)", "$1 ").trim(), IbanParserService.group(expected));
+        }
+    }
+
+    @Test
+    void compactUpperCaseInputIsNotCopied() {
+        String compact = "DE89370400440532013000";
+        assertSame(compact, IbanParserService.normalize(compact));
+    }
+
+    @Test
+    void validIbanIsSplitIntoCountryAndBban() {
+        IbanParseResult result = service.parse("de89 3704 0044 0532 0130 00");
+
+        assertTrue(result.isValid());
+        assertEquals("DE", result.countryCode());
+        assertEquals("370400440532013000", result.bban());
+        assertEquals("DE89 3704 0044 0532 0130 00", result.friendlyFormat());
+        assertEquals("DE89370400440532013000", result.compactFormat());
+    }
+
+    @Test
+    void checksumAndCountryErrorsAreReportedAsInvalid() {
+        assertFalse(service.parse("DE89370400440532013001").isValid());
+        assertFalse(service.parse("XX89370400440532013000").isValid());
+        assertFalse(service.parse(null).isValid());
+    }
+}
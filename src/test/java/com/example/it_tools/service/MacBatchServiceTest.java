@@ -0,0 +1,70 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.MacBatchSummary;
+import com.example.it_tools.dto.MacLookupResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class MacBatchServiceTest {
+
+    @Test
+    void everyNotationInArpAndLeaseDumpsIsResolved(@TempDir Path dir) throws IOException {
+        Path registry = Files.writeString(dir.resolve("oui.csv"), """
+                Registry,Assignment,Organization Name,Organization Address
+                MA-L,203706,Cisco Systems Inc,San Jose CA US 94568
+                MA-L,3C5AB4,Google Inc,Mountain View CA US 94043
+                """);
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        MacVendorService vendors = new MacVendorService(restTemplate, registry.toString(), true,
+                100, 60, 60, Runnable::run, new SimpleMeterRegistry());
+        vendors.reload();
+        MacBatchService service = new MacBatchService(vendors);
+
+        String dump = """
+                ? (192.168.1.1) at 20:37:06:12:34:56 [ether] on eth0
+                Internet  10.0.0.7   5   2037.0612.abcd  ARPA   Vlan1
+                lease 10.0.0.9 { hardware ethernet 3c-5a-b4-00-00-01; }
+                mac,host
+                "3C5AB4000002",printer
+                00:00:00:00:00:01 unknown-device
+                not a mac 20:37:06 or 1234567890123
+                """;
+        List<MacLookupResult> results = new ArrayList<>();
+        MacBatchSummary summary = service.resolve(
+                Channels.newChannel(new ByteArrayInputStream(dump.getBytes(StandardCharsets.UTF_8))), results::add);
+
+        assertEquals(List.of("20:37:06:12:34:56", "20:37:06:12:AB:CD", "3C:5A:B4:00:00:01", "3C:5A:B4:00:00:02",
+                "00:00:00:00:00:01"), results.stream().map(MacLookupResult::mac).toList());
+        assertEquals(List.of(1L, 2L, 3L, 5L, 6L), results.stream().map(MacLookupResult::line).toList());
+        assertTrue(results.get(0).found());
+        assertEquals("Cisco Systems Inc", results.get(0).vendor().company());
+        assertFalse(results.get(4).found());
+        assertNull(results.get(4).vendor());
+
+        assertEquals(Map.of("Cisco Systems Inc", 2L, "Google Inc", 2L), summary.byVendor());
+        assertEquals(7, summary.lines());
+        assertEquals(5, summary.macs());
+        assertEquals(4, summary.found());
+        assertEquals(1, summary.unknown());
+        verifyNoInteractions(restTemplate);
+    }
+}
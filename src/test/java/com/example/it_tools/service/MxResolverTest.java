@@ -0,0 +1,294 @@
+package com.example.it_tools.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MxResolverTest {
+    private StubDnsServer dns;
+
+    @BeforeEach
+    void startDns() throws SocketException {
+        dns = new StubDnsServer();
+    }
+
+    @AfterEach
+    void stopDns() {
+        dns.close();
+    }
+
+    private MxResolver resolver(long minTtlSeconds) {
+        return new MxResolver("127.0.0.1:" + dns.port(), 200, 2, 4, 100, 1000,
+                minTtlSeconds, 3600, 300, 30, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void concurrentLookupsForOneDomainShareOneQueryAndAreCached() throws Exception {
+        dns.answer("example.com", new Reply(0, 300, -1, 100));
+        MxResolver resolver = resolver(30);
+
+        List<CompletableFuture<Boolean>> lookups = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lookups.add(resolver.hasMx("Example.COM."));
+        }
+        for (CompletableFuture<Boolean> lookup : lookups) {
+            assertTrue(lookup.get(2, TimeUnit.SECONDS));
+        }
+        assertTrue(resolver.hasMx("example.com").get(2, TimeUnit.SECONDS));
+        assertEquals(1, dns.queries("example.com"));
+    }
+
+    @Test
+    void entriesExpireWithTheRecordTtl() throws Exception {
+        dns.answer("short.test", new Reply(0, 1, -1, 0));
+        MxResolver resolver = resolver(0);
+
+        assertTrue(resolver.hasMx("short.test").get(2, TimeUnit.SECONDS));
+        assertTrue(resolver.hasMx("short.test").get(2, TimeUnit.SECONDS));
+        assertEquals(1, dns.queries("short.test"));
+
+        Thread.sleep(1100);
+        assertTrue(resolver.hasMx("short.test").get(2, TimeUnit.SECONDS));
+        assertEquals(2, dns.queries("short.test"));
+    }
+
+    @Test
+    void zeroTtlAnswersAreNotCached() throws Exception {
+        dns.answer("volatile.test", new Reply(0, 0, -1, 0));
+        MxResolver resolver = resolver(0);
+
+        assertTrue(resolver.hasMx("volatile.test").get(2, TimeUnit.SECONDS));
+        assertTrue(resolver.hasMx("volatile.test").get(2, TimeUnit.SECONDS));
+        assertEquals(2, dns.queries("volatile.test"));
+    }
+
+    @Test
+    void nxdomainIsCachedForTheSoaNegativeTtl() throws Exception {
+        dns.answer("missing.test", new Reply(3, -1, 1, 0));
+        MxResolver resolver = resolver(0);
+
+        assertFalse(resolver.hasMx("missing.test").get(2, TimeUnit.SECONDS));
+        assertFalse(resolver.hasMx("missing.test").get(2, TimeUnit.SECONDS));
+        assertEquals(1, dns.queries("missing.test"));
+
+        Thread.sleep(1100);
+        assertFalse(resolver.hasMx("missing.test").get(2, TimeUnit.SECONDS));
+        assertEquals(2, dns.queries("missing.test"));
+    }
+
+    @Test
+    void unansweredQueriesFailAndAreRetriedOnlyAfterTheFailureTtl() throws Exception {
+        // Không có câu trả lời cấu hình: stub im lặng
+        MxResolver resolver = resolver(30);
+
+        long start = System.nanoTime();
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> resolver.hasMx("slow.test").get(2, TimeUnit.SECONDS));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertInstanceOf(MxResolver.LookupFailedException.class, error.getCause());
+        assertTrue(elapsedMillis >= 400 && elapsedMillis < 1500, "2 attempts x 200ms, took " + elapsedMillis);
+        assertEquals(2, dns.queries("slow.test"));
+
+        // Lỗi được nhớ riêng: không hỏi lại DNS, và vẫn không phải câu trả lời "không có MX"
+        assertThrows(ExecutionException.class, () -> resolver.hasMx("slow.test").get(2, TimeUnit.SECONDS));
+        assertEquals(2, dns.queries("slow.test"));
+    }
+
+    @Test
+    void servfailFallsBackToTheNextServer() throws Exception {
+        dns.answer("flaky.test", new Reply(2, -1, -1, 0));
+        try (StubDnsServer second = new StubDnsServer()) {
+            second.answer("flaky.test", new Reply(0, 60, -1, 0));
+            MxResolver resolver = new MxResolver("127.0.0.1:" + dns.port() + ", 127.0.0.1:" + second.port(),
+                    200, 1, 4, 100, 1000, 30, 3600, 300, 30, new SimpleMeterRegistry());
+
+            assertTrue(resolver.hasMx("flaky.test").get(2, TimeUnit.SECONDS));
+            assertEquals(1, dns.queries("flaky.test"));
+            assertEquals(1, second.queries("flaky.test"));
+        }
+    }
+
+    @Test
+    void fullQueueFailsTheLookupInsteadOfAnsweringNoMx() throws Exception {
+        // Một luồng, hàng đợi một chỗ, stub im lặng: lần tra thứ ba bị từ chối
+        MxResolver resolver = new MxResolver("127.0.0.1:" + dns.port(), 200, 1, 1, 1, 1000,
+                30, 3600, 300, 30, new SimpleMeterRegistry());
+        resolver.hasMx("one.test");
+        resolver.hasMx("two.test");
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> resolver.hasMx("three.test").get(2, TimeUnit.SECONDS));
+        assertInstanceOf(MxResolver.LookupFailedException.class, error.getCause());
+        assertInstanceOf(RejectedExecutionException.class, error.getCause().getCause());
+        resolver.shutdown();
+    }
+
+    @Test
+    void invalidNamesAreRejectedWithoutAQuery() throws Exception {
+        MxResolver resolver = resolver(30);
+
+        assertFalse(resolver.hasMx("bad..name").get(2, TimeUnit.SECONDS));
+        assertFalse(resolver.hasMx(" ").get(2, TimeUnit.SECONDS));
+        assertEquals(0, dns.totalQueries());
+    }
+
+    /**
+     * @param rcode      response code (0 NOERROR, 2 SERVFAIL, 3 NXDOMAIN)
+     * @param mxTtl      TTL of the single MX answer, -1 for no answer
+     * @param soaTtl     TTL (and MINIMUM) of an SOA in the authority section, -1 for none
+     * @param delayMillis delay before replying
+     */
+    record Reply(int rcode, int mxTtl, int soaTtl, int delayMillis) {
+    }
+
+    /**
+     * UDP DNS server on a loopback port answering MX queries from a fixed table; unknown names get no reply.
+     */
+    static final class StubDnsServer implements AutoCloseable {
+        private final DatagramSocket socket;
+        private final Map<String, Reply> replies = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> queries = new ConcurrentHashMap<>();
+        private final Thread thread;
+
+        StubDnsServer() throws SocketException {
+            socket = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            thread = new Thread(this::serve, "stub-dns");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        void answer(String name, Reply reply) {
+            replies.put(name, reply);
+        }
+
+        int queries(String name) {
+            AtomicInteger count = queries.get(name);
+            return count == null ? 0 : count.get();
+        }
+
+        int totalQueries() {
+            return queries.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+
+        private void serve() {
+            byte[] buffer = new byte[512];
+            while (!socket.isClosed()) {
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                try {
+                    socket.receive(packet);
+                } catch (IOException e) {
+                    return;
+                }
+                int questionEnd = 12;
+                StringBuilder name = new StringBuilder();
+                while (buffer[questionEnd] != 0) {
+                    int length = buffer[questionEnd];
+                    if (!name.isEmpty()) {
+                        name.append('.');
+                    }
+                    name.append(new String(buffer, questionEnd + 1, length, StandardCharsets.US_ASCII));
+                    questionEnd += 1 + length;
+                }
+                questionEnd += 5;
+                queries.computeIfAbsent(name.toString(), k -> new AtomicInteger()).incrementAndGet();
+                Reply reply = replies.get(name.toString());
+                if (reply == null) {
+                    continue;
+                }
+                byte[] response = response(buffer, questionEnd, reply);
+                InetSocketAddress client = (InetSocketAddress) packet.getSocketAddress();
+                // Trả lời trễ trên luồng riêng để các truy vấn khác không phải chờ
+                Thread.ofVirtual().start(() -> {
+                    try {
+                        Thread.sleep(reply.delayMillis());
+                        socket.send(new DatagramPacket(response, response.length, client));
+                    } catch (IOException | InterruptedException ignored) {
+                        // stub đã đóng
+                    }
+                });
+            }
+        }
+
+        private static byte[] response(byte[] query, int questionEnd, Reply reply) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(query[0]);
+            out.write(query[1]);
+            out.write(0x81); // QR + RD
+            out.write(0x80 | reply.rcode()); // RA + RCODE
+            writeShort(out, 1);
+            writeShort(out, reply.mxTtl() >= 0 ? 1 : 0);
+            writeShort(out, reply.soaTtl() >= 0 ? 1 : 0);
+            writeShort(out, 0);
+            out.write(query, 12, questionEnd - 12);
+            if (reply.mxTtl() >= 0) {
+                writeShort(out, 0xC00C); // con trỏ tới tên trong phần câu hỏi
+                writeShort(out, 15);
+                writeShort(out, 1);
+                writeInt(out, reply.mxTtl());
+                writeShort(out, 5);
+                writeShort(out, 10);
+                out.write(0xC0);
+                out.write(0x0C);
+                out.write(0);
+            }
+            if (reply.soaTtl() >= 0) {
+                writeShort(out, 0xC00C);
+                writeShort(out, 6);
+                writeShort(out, 1);
+                writeInt(out, reply.soaTtl());
+                writeShort(out, 2 + 20);
+                out.write(0); // MNAME (gốc)
+                out.write(0); // RNAME (gốc)
+                for (int i = 0; i < 4; i++) {
+                    writeInt(out, 3600); // SERIAL, REFRESH, RETRY, EXPIRE
+                }
+                writeInt(out, reply.soaTtl()); // MINIMUM
+            }
+            return out.toByteArray();
+        }
+
+        private static void writeShort(ByteArrayOutputStream out, int value) {
+            out.write(value >>> 8);
+            out.write(value);
+        }
+
+        private static void writeInt(ByteArrayOutputStream out, int value) {
+            writeShort(out, value >>> 16);
+            writeShort(out, value);
+        }
+
+        @Override
+        public void close() {
+            socket.close();
+        }
+    }
+}
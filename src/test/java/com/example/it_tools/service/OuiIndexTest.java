@@ -0,0 +1,84 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.MacVendor;
+import com.example.it_tools.util.MacAddress;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OuiIndexTest {
+    private static final String REGISTRY = """
+            Registry,Assignment,Organization Name,Organization Address
+            MA-L,203706,Cisco Systems Inc,"80 West Tasman Drive San Jose CA US 94568"
+            MA-L,70B3D5,IEEE Registration Authority,"445 Hoes Lane Piscataway NJ US 08554"
+            MA-M,70B3D51,"Acme, ""Blocks"" Ltd",Unit 4 Leeds  GB LS1 4AP
+            MA-S,70B3D5123,Tiny Devices,Somewhere without a country
+            MA-L,203706,Duplicate Entry,ignored
+            """;
+
+    private static MacVendor lookup(OuiIndex index, String mac) {
+        return index.lookup(MacAddress.parse(mac));
+    }
+
+    @Test
+    void mostSpecificBlockWins() throws IOException {
+        OuiIndex index = OuiIndex.parse(new StringReader(REGISTRY));
+
+        assertEquals(Map.of("MA-L", 2, "MA-M", 1, "MA-S", 1), index.sizes());
+        assertEquals("Cisco Systems Inc", lookup(index, "20:37:06:12:34:56").company());
+        assertEquals("Tiny Devices", lookup(index, "70-B3-D5-12-3F-FF").company());
+        assertEquals("Acme, \"Blocks\" Ltd", lookup(index, "70b3.d51f.0000").company());
+        assertEquals("IEEE Registration Authority", lookup(index, "70B3D5F00000").company());
+        assertNull(lookup(index, "00:00:00:00:00:01"));
+    }
+
+    @Test
+    void prefixesOnlyMatchBlocksTheyCover() throws IOException {
+        OuiIndex index = OuiIndex.parse(new StringReader(REGISTRY));
+
+        // 6 chữ số hex chỉ đủ cho khối MA-L, không khớp nhầm khối con 70B3D5 0...
+        assertEquals("IEEE Registration Authority", lookup(index, "70B3D5").company());
+        assertEquals("Acme, \"Blocks\" Ltd", lookup(index, "70B3D51").company());
+    }
+
+    @Test
+    void vendorCarriesTheRemoteApiFields() throws IOException {
+        MacVendor vendor = lookup(OuiIndex.parse(new StringReader(REGISTRY)), "203706000001");
+
+        assertEquals(new MacVendor("203706000000", "203706FFFFFF", "Cisco Systems Inc",
+                "80 West Tasman Drive San Jose CA", null, "94568", "US", "MA-L"), vendor);
+        MacVendor medium = lookup(OuiIndex.parse(new StringReader(REGISTRY)), "70B3D51AAAAA");
+        assertEquals("70B3D5100000", medium.startHex());
+        assertEquals("70B3D51FFFFF", medium.endHex());
+        assertEquals("GB", medium.country());
+        assertEquals("LS1 4AP", medium.addressL3());
+    }
+
+    @Test
+    void addressWithoutCountryIsKeptWhole() {
+        assertArrayEquals(new String[]{"Somewhere without a country", null, null},
+                OuiIndex.splitAddress("Somewhere without a country"));
+        assertEquals(List.of("a", "b, c", "d \"e\""), OuiIndex.splitCsv("a,\"b, c\",\"d \"\"e\"\"\""));
+    }
+
+    @Test
+    void loadsFilesInOrder(@TempDir Path dir) throws IOException {
+        Path large = Files.writeString(dir.resolve("oui.csv"), REGISTRY);
+        Path override = Files.writeString(dir.resolve("extra.csv"), "MA-L,203706,First Wins,\n");
+
+        OuiIndex index = OuiIndex.load(List.of(override, large));
+
+        assertEquals("First Wins", lookup(index, "203706000000").company());
+        assertEquals(List.of(override.toString(), large.toString()), index.sources());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.PhoneParseResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberFormat;
+import com.google.i18n.phonenumbers.PhoneNumberUtil.PhoneNumberType;
+import com.google.i18n.phonenumbers.Phonenumber.PhoneNumber;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhoneParserServiceTest {
+    private final PhoneNumberUtil phoneUtil = PhoneNumberUtil.getInstance();
+    private SimpleMeterRegistry meterRegistry;
+    private PhoneParserService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PhoneParserService(Runnable::run, 16, 100, meterRegistry);
+    }
+
+    @Test
+    void derivedFormatsMatchLibphonenumberForEveryRegion() throws NumberParseException {
+        int checked = 0;
+        for (String region : phoneUtil.getSupportedRegions()) {
+            for (PhoneNumberType type : new PhoneNumberType[]{PhoneNumberType.FIXED_LINE, PhoneNumberType.MOBILE,
+                    PhoneNumberType.TOLL_FREE, PhoneNumberType.PREMIUM_RATE}) {
+                PhoneNumber example = phoneUtil.getExampleNumberForType(region, type);
+                if (example == null) {
+                    continue;
+                }
+                String input = phoneUtil.format(example, PhoneNumberFormat.E164);
+                PhoneParseResult result = service.parseUncached(input, region);
+                PhoneNumber number = phoneUtil.parse(input, region);
+                assertEquals(phoneUtil.format(number, PhoneNumberFormat.E164), result.e164(), input);
+                assertEquals(phoneUtil.format(number, PhoneNumberFormat.RFC3966), result.rfc3966(), input);
+                checked++;
+            }
+        }
+        assertTrue(checked > 500, "only " + checked + " example numbers");
+    }
+
+    @Test
+    void extensionsFallBackToLibphonenumberFormatting() throws NumberParseException {
+        PhoneParseResult result = service.parse("+1 650-253-0000 ext. 123", "US");
+        assertEquals("tel:+1-650-253-0000;ext=123", result.rfc3966());
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromCache() throws NumberParseException {
+        PhoneParseResult first = service.parse("0912 345 678", "VN");
+        PhoneParseResult second = service.parse("  0912  345   678 ", "VN");
+
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void parseErrorsAreCachedToo() {
+        NumberParseException first = assertThrows(NumberParseException.class, () -> service.parse("abc", "VN"));
+        NumberParseException second = assertThrows(NumberParseException.class, () -> service.parse("abc", "VN"));
+
+        assertEquals(first.getErrorType(), second.getErrorType());
+        assertEquals(first.getMessage(), second.getMessage());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void serializesWithTheOriginalKeys() throws Exception {
+        JsonNode json = new ObjectMapper().valueToTree(service.parse("+84912345678", "VN"));
+
+        assertEquals("VN", json.get("country").asText());
+        assertEquals("Vietnam", json.get("countryName").asText());
+        assertEquals(84, json.get("callingCode").asInt());
+        assertTrue(json.get("isValid").asBoolean());
+        assertTrue(json.get("isPossible").asBoolean());
+        assertEquals("MOBILE", json.get("type").asText());
+        assertEquals("+84 912 345 678", json.get("international").asText());
+        assertEquals("0912 345 678", json.get("national").asText());
+        assertEquals("+84912345678", json.get("e164").asText());
+        assertEquals("tel:+84-912-345-678", json.get("rfc3966").asText());
+        assertEquals(10, json.size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.model.RevokedToken;
+import com.example.it_tools.repository.RevokedTokenRepository;
+import com.example.it_tools.security.JwtPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+    private static final long LIFETIME_MS = Duration.ofHours(24).toMillis();
+
+    private RevokedTokenRepository repository;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        service = new TokenRevocationService(repository, LIFETIME_MS, 1_000);
+    }
+
+    @Test
+    void revokedTokenIsRejectedAndOthersAreNot() {
+        JwtPrincipal revoked = principal("alice", "jti-1", Instant.now());
+        JwtPrincipal other = principal("alice", "jti-2", Instant.now());
+
+        service.revoke(revoked);
+
+        assertTrue(service.isRevoked(revoked));
+        assertFalse(service.isRevoked(other));
+    }
+
+    @Test
+    void userCutoffRevokesOnlyOlderTokens() {
+        JwtPrincipal old = principal("bob", "jti-old", Instant.now().minus(1, ChronoUnit.HOURS));
+        service.revokeAllFor("bob");
+        JwtPrincipal fresh = principal("bob", "jti-new", Instant.now().plusSeconds(2));
+
+        assertTrue(service.isRevoked(old));
+        assertFalse(service.isRevoked(fresh));
+        assertFalse(service.isRevoked(principal("carol", "jti-c", Instant.now().minusSeconds(60))));
+    }
+
+    @Test
+    void reloadKeepsRemoteEntriesAndDropsExpiredOnes() {
+        Instant now = Instant.now();
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                new RevokedToken("jti-remote", "dave", null, now.plus(1, ChronoUnit.HOURS))));
+        service.revoke(principal("erin", "jti-expired", now.minus(2, ChronoUnit.DAYS), now.minusSeconds(1)));
+
+        service.reload();
+
+        assertTrue(service.isRevoked(principal("dave", "jti-remote", now)));
+        assertFalse(service.isRevoked(principal("erin", "jti-expired", now)));
+    }
+
+    @Test
+    void revocationStillAppliesWhenMongoIsDown() {
+        when(repository.save(any())).thenThrow(new DataAccessResourceFailureException("down"));
+        JwtPrincipal principal = principal("frank", "jti-f", Instant.now());
+
+        service.revoke(principal);
+
+        assertTrue(service.isRevoked(principal));
+    }
+
+    private static JwtPrincipal principal(String username, String tokenId, Instant issuedAt) {
+        return principal(username, tokenId, issuedAt, issuedAt.plusMillis(LIFETIME_MS));
+    }
+
+    private static JwtPrincipal principal(String username, String tokenId, Instant issuedAt, Instant expiresAt) {
+        return new JwtPrincipal(username, null, false, List.of(), tokenId, issuedAt, expiresAt);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.model.Tool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ToolCatalogTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static Tool tool(String name) {
+        Tool tool = new Tool();
+        tool.setName(name);
+        return tool;
+    }
+
+    @Test
+    void etagDependsOnContentOnly() {
+        ToolCatalog first = ToolCatalog.encode(1, List.of(tool("Bcrypt")), mapper);
+        ToolCatalog reloaded = ToolCatalog.encode(2, List.of(tool("Bcrypt")), mapper);
+        ToolCatalog changed = ToolCatalog.encode(3, List.of(tool("UUID")), mapper);
+
+        assertEquals(first.getEtag(), reloaded.getEtag());
+        assertEquals(first.getGzipEtag(), reloaded.getGzipEtag());
+        assertNotEquals(first.getEtag(), changed.getEtag());
+        assertNotEquals(first.getEtag(), first.getGzipEtag());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.model.Tool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolSearchIndexTest {
+
+    private ToolSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ToolSearchIndex();
+        index.sync(List.of(
+                tool("1", "JSON Formatter", "Prettify and validate JSON", "development"),
+                tool("2", "Hash Text", "Compute MD5 and SHA digests", "crypto"),
+                tool("3", "Bcrypt", "Hash and compare passwords", "crypto"),
+                tool("4", "Temperature Converter", "Chuyển đổi nhiệt độ", "measurement")));
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        assertEquals(List.of("2", "3"), index.search("hash", 10));
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertEquals("1", index.search("jsn formater", 10).get(0));
+    }
+
+    @Test
+    void matchesPrefixWhileTyping() {
+        assertEquals("4", index.search("temp", 10).get(0));
+        assertEquals(List.of("temperature"), index.suggest("tem", 5));
+    }
+
+    @Test
+    void foldsDiacritics() {
+        assertEquals(List.of("4"), index.search("nhiet do", 10));
+    }
+
+    @Test
+    void reindexesIncrementally() {
+        index.index(tool("2", "Checksum", "Compute digests", "crypto"));
+        assertEquals(List.of("3"), index.search("hash", 10));
+
+        index.remove("3");
+        assertTrue(index.search("hash", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    private static Tool tool(String id, String name, String description, String category) {
+        return new Tool(id, name, description, category, "/" + id, 0, true, false);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.dto.ToolPatch;
+import com.example.it_tools.model.Tool;
+import com.example.it_tools.repository.ToolRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ToolServicePatchTest {
+    private final ObjectId id = new ObjectId();
+    private ToolRepository repository;
+    private ToolService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ToolRepository.class);
+        when(repository.findAll()).thenReturn(List.of(tool(1, false)));
+        service = new ToolService(repository, new ObjectMapper(), new ToolSearchIndex());
+        service.getCatalog();
+    }
+
+    private Tool tool(long revision, boolean premium) {
+        Tool tool = new Tool(null, "Bcrypt", "Hash passwords", "crypto", "/crypto/bcrypt", 1, true, premium);
+        tool.setId(id);
+        tool.setRevision(revision);
+        return tool;
+    }
+
+    private static ToolPatch premium() {
+        ToolPatch patch = new ToolPatch();
+        patch.setPremium(true);
+        return patch;
+    }
+
+    @Test
+    void catalogTakesTheDocumentMongoReturns() {
+        Tool after = tool(2, true);
+        when(repository.patch(id.toHexString(), premium(), 1L, true)).thenReturn(after);
+
+        assertSame(after, service.patchTool(id.toHexString(), premium(), 1L, true).orElseThrow());
+        assertSame(after, service.getCatalog().getTools().get(0));
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void previousDocumentIsReturnedAndTheCatalogReadsTheNewOne() {
+        Tool before = tool(1, false);
+        Tool after = tool(2, true);
+        when(repository.patch(id.toHexString(), premium(), null, false)).thenReturn(before);
+        when(repository.findById(id.toHexString())).thenReturn(Optional.of(after));
+
+        assertSame(before, service.patchTool(id.toHexString(), premium(), null, false).orElseThrow());
+        assertSame(after, service.getCatalog().getTools().get(0));
+        assertEquals(2, service.getCatalog().getTools().get(0).getRevision());
+    }
+
+    @Test
+    void unknownToolLeavesTheCatalogAlone() {
+        when(repository.patch(any(), any(), any(), any(Boolean.class))).thenReturn(null);
+        long version = service.getCatalog().getVersion();
+
+        assertEquals(Optional.empty(), service.patchTool(id.toHexString(), premium(), null, true));
+        assertEquals(version, service.getCatalog().getVersion());
+    }
+}
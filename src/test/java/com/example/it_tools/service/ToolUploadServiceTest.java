@@ -0,0 +1,97 @@
+package com.example.it_tools.service;
+
+import com.example.it_tools.model.Tool;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ToolUploadServiceTest {
+    @TempDir
+    Path dir;
+
+    private ToolService toolService;
+    private ToolUploadService uploads;
+
+    @BeforeEach
+    void setUp() {
+        toolService = mock(ToolService.class);
+        when(toolService.addTool(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        uploads = new ToolUploadService(toolService, dir.toString());
+    }
+
+    private static Tool tool() {
+        return new Tool(null, "Mã hóa (AES) & Base64", "", "Crypto", "/crypto/aes", 1, true, false);
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "tool.jsx", "text/plain", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void namesWithAccentsAndPunctuationAreSlugged() throws IOException {
+        uploads.upload(tool(), file("export default 1;"));
+
+        assertEquals("export default 1;", Files.readString(dir.resolve("crypto/ma-hoa-aes-base64.jsx")));
+        assertEquals("dev-tools", ToolUploadService.slug("Dev Tools"));
+        assertThrows(IllegalArgumentException.class, () -> ToolUploadService.slug("../.."));
+        assertThrows(IllegalArgumentException.class, () -> ToolUploadService.slug("(&)"));
+    }
+
+    @Test
+    void identicalReuploadReturnsTheExistingTool() throws IOException {
+        uploads.upload(tool(), file("export default 1;"));
+        Tool existing = tool();
+        when(toolService.findUploaded(any())).thenReturn(Optional.of(existing));
+
+        assertSame(existing, uploads.upload(tool(), file("export default 1;")));
+        verify(toolService, times(1)).addTool(any());
+    }
+
+    @Test
+    void changedFileForAnExistingToolUpdatesItInsteadOfAddingAnother() throws IOException {
+        uploads.upload(tool(), file("export default 1;"));
+        Tool existing = tool();
+        existing.setId(new ObjectId());
+        existing.setContentHash("old");
+        when(toolService.findUploaded(any())).thenReturn(Optional.of(existing));
+        when(toolService.updateTool(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Tool result = uploads.upload(tool(), file("export default 2;"));
+
+        assertSame(existing, result);
+        assertEquals("/crypto/aes", result.getPath());
+        assertNotEquals("old", result.getContentHash());
+        assertEquals("export default 2;", Files.readString(dir.resolve("crypto/ma-hoa-aes-base64.jsx")));
+        verify(toolService, times(1)).addTool(any());
+        verify(toolService).updateTool(existing);
+    }
+
+    @Test
+    void fileEditedOnDiskIsReplacedByAnUploadOfItsOldContent() throws IOException {
+        uploads.upload(tool(), file("export default 1;"));
+        Path target = dir.resolve("crypto/ma-hoa-aes-base64.jsx");
+        Files.writeString(target, "export default 2;");
+
+        uploads.upload(tool(), file("export default 1;"));
+
+        assertEquals("export default 1;", Files.readString(target));
+    }
+}
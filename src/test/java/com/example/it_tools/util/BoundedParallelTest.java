@@ -0,0 +1,74 @@
+package com.example.it_tools.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedParallelTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void deliversEveryResultWithBoundedInFlight() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxSeen = new AtomicInteger();
+        List<Integer> results = new ArrayList<>();
+
+        long delivered = BoundedParallel.forEachCompleted(IntStream.range(0, 1_000).iterator(), i -> {
+            maxSeen.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            inFlight.decrementAndGet();
+            return i * 2;
+        }, executor, 4, results::add);
+
+        assertEquals(1_000, delivered);
+        assertEquals(1_000, results.size());
+        assertEquals(999 * 1_000, results.stream().mapToLong(Integer::longValue).sum());
+        assertTrue(maxSeen.get() <= 4, "in flight: " + maxSeen.get());
+    }
+
+    @Test
+    void inputFailureStillDeliversSubmittedResults() {
+        Iterator<Integer> failing = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == 3) {
+                    throw new IllegalStateException("broken input");
+                }
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return next++;
+            }
+        };
+        List<Integer> results = new ArrayList<>();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> BoundedParallel.forEachCompleted(failing, i -> i, executor, 16, results::add));
+
+        assertEquals("broken input", e.getMessage());
+        assertEquals(3, results.size());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.it_tools.util;
+
+import com.example.it_tools.util.ChannelLineReader.Line;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChannelLineReaderTest {
+
+    private static List<Line> read(String content, int bufferSize, int maxLineBytes) {
+        ChannelLineReader reader = new ChannelLineReader(
+                Channels.newChannel(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))),
+                bufferSize, maxLineBytes);
+        List<Line> lines = new ArrayList<>();
+        reader.forEachRemaining(lines::add);
+        return lines;
+    }
+
+    @Test
+    void splitsLinesAcrossBufferBoundaries() {
+        // Bộ đệm 3 byte: dòng và ký tự UTF-8 nhiều byte đều bị cắt ngang giữa các lần đọc
+        List<Line> lines = read("DE89 3704\r\n\nÄÖÜ\nlast", 3, 64);
+
+        assertEquals(List.of(
+                new Line(1, "DE89 3704", false),
+                new Line(2, "", false),
+                new Line(3, "ÄÖÜ", false),
+                new Line(4, "last", false)), lines);
+    }
+
+    @Test
+    void trailingNewlineDoesNotAddAnEmptyLine() {
+        assertEquals(List.of(new Line(1, "a", false)), read("a\n", 16, 64));
+        assertEquals(List.of(), read("", 16, 64));
+    }
+
+    @Test
+    void longLinesAreCutAndFlagged() {
+        List<Line> lines = read("abcdefgh\nok\n", 4, 5);
+
+        assertEquals(List.of(new Line(1, "abcde", true), new Line(2, "ok", false)), lines);
+    }
+}
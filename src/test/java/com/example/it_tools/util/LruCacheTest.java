@@ -0,0 +1,49 @@
+package com.example.it_tools.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LruCacheTest {
+
+    @Test
+    void zeroTtlIsNotStoredAndDoesNotMeanForever() {
+        LruCache<String, String> cache = new LruCache<>(10);
+        cache.put("key", "v1");
+        cache.put("key", "v2", Duration.ZERO);
+        cache.put("other", "v", Duration.ofSeconds(-1));
+
+        assertNull(cache.get("key"));
+        assertNull(cache.get("other"));
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<String, String>(10, Duration.ZERO));
+    }
+
+    @Test
+    void entriesWithoutTtlNeverExpireAndPerEntryTtlsDo() throws Exception {
+        LruCache<String, String> cache = new LruCache<>(10);
+        cache.put("forever", "v");
+        cache.put("short", "v", Duration.ofMillis(30));
+        Thread.sleep(60);
+
+        assertEquals("v", cache.get("forever"));
+        assertNull(cache.get("short"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        LruCache<String, String> cache = new LruCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+    }
+}
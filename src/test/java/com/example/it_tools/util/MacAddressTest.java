@@ -0,0 +1,31 @@
+package com.example.it_tools.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MacAddressTest {
+
+    @Test
+    void everyNotationParsesToTheSameValue() {
+        for (String notation : new String[]{"20:37:06:12:34:5a", "20-37-06-12-34-5A", "2037.0612.345a", "2037 0612 345A", "20370612345A"}) {
+            MacAddress mac = MacAddress.parse(notation);
+            assertEquals(0x203706_12345AL, mac.value(), notation);
+            assertEquals(48, mac.bits());
+            assertEquals("20:37:06:12:34:5A", mac.toString());
+        }
+    }
+
+    @Test
+    void prefixesArePaddedAndInvalidInputRejected() {
+        MacAddress prefix = MacAddress.parse("20:37:06");
+        assertEquals(0x203706_000000L, prefix.value());
+        assertEquals(24, prefix.bits());
+
+        assertNull(MacAddress.parse("20:37"));
+        assertNull(MacAddress.parse("20:37:06:12:34:56:78"));
+        assertNull(MacAddress.parse("20:37:06:12:34:5G"));
+        assertNull(MacAddress.parse(null));
+    }
+}
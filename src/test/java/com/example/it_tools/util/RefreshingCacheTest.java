@@ -0,0 +1,141 @@
+package com.example.it_tools.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshingCacheTest {
+    // Executor giữ task lại để test tự quyết định lúc chạy refresh
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    private RefreshingCache<String, String> cache(Duration ttl, Duration staleTtl) {
+        return new RefreshingCache<>(100, ttl, staleTtl, refreshes::add);
+    }
+
+    @Test
+    void concurrentMissesForOneKeyShareOneLoad() throws Exception {
+        RefreshingCache<String, String> cache = cache(Duration.ofMinutes(1), Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(20);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(callers.submit(() -> cache.get("00:00:5E", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "IANA";
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.coalesced() < 19 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("IANA", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(19, cache.coalesced());
+        assertEquals("IANA", cache.get("00:00:5E", () -> "reloaded"));
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    void failuresReachEveryWaiterAndAreNotCached() throws Exception {
+        RefreshingCache<String, String> cache = cache(Duration.ofMinutes(1), Duration.ZERO);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("upstream down");
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> leader = callers.submit(() -> cache.get("key", () -> {
+                await(release);
+                throw failure;
+            }));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.misses() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            Future<?> follower = callers.submit(() -> cache.get("key", () -> "never called"));
+            while (cache.coalesced() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertSame(failure, leaderError.getCause());
+            assertSame(failure, followerError.getCause());
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals("recovered", cache.get("key", () -> "recovered"));
+    }
+
+    @Test
+    void staleValueIsServedWhileOneBackgroundRefreshRuns() throws Exception {
+        RefreshingCache<String, String> cache = cache(Duration.ofMillis(50), Duration.ofMinutes(1));
+        cache.get("key", () -> "v1");
+        Thread.sleep(80);
+
+        assertEquals("v1", cache.get("key", () -> "v2"));
+        assertEquals("v1", cache.get("key", () -> "v2"));
+        assertEquals("v1", cache.get("key", () -> "v2"));
+        assertEquals(1, refreshes.size());
+        assertEquals(3, cache.staleHits());
+
+        refreshes.remove(0).run();
+        assertEquals("v2", cache.get("key", () -> "v3"));
+        assertEquals(1, cache.hits());
+        assertTrue(refreshes.isEmpty());
+    }
+
+    @Test
+    void failedRefreshKeepsServingTheStaleValue() throws Exception {
+        RefreshingCache<String, String> cache = cache(Duration.ofMillis(50), Duration.ofMinutes(1));
+        cache.get("key", () -> "v1");
+        Thread.sleep(80);
+
+        assertEquals("v1", cache.get("key", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        refreshes.remove(0).run();
+
+        assertEquals("v1", cache.get("key", () -> "v2"));
+        assertEquals(1, refreshes.size());
+    }
+
+    @Test
+    void entriesPastTheStaleWindowAreLoadedAgain() throws Exception {
+        RefreshingCache<String, String> cache = cache(Duration.ofMillis(30), Duration.ofMillis(30));
+        cache.get("key", () -> "v1");
+        Thread.sleep(100);
+
+        assertEquals("v2", cache.get("key", () -> "v2"));
+        assertEquals(2, cache.misses());
+        assertTrue(refreshes.isEmpty());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}